@@ -0,0 +1,57 @@
+// k6 load test for the expense and budget endpoints.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=500 loadtest/expense-endpoints.js
+//
+// Run it once against the default (platform-thread) mode and once with
+// --spring.profiles.active=virtual-threads on Java 21, then compare http_reqs/s and the p(99) trends.
+// All requests come from one user, so start the app with --app.rate-limit.enabled=false.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '500');
+const DURATION = __ENV.DURATION || '60s';
+
+export const options = {
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  scenarios: {
+    listExpenses: { executor: 'constant-vus', vus: VUS, duration: DURATION, exec: 'listExpenses' },
+    budgetStatus: { executor: 'constant-vus', vus: Math.max(1, VUS / 4), duration: DURATION, exec: 'budgetStatus' },
+    createExpense: { executor: 'constant-vus', vus: Math.max(1, VUS / 10), duration: DURATION, exec: 'createExpense' },
+  },
+};
+
+export function setup() {
+  const credentials = JSON.stringify({ username: `load-${Date.now()}`, password: 'load-test' });
+  const json = { headers: { 'Content-Type': 'application/json' } };
+  http.post(`${BASE_URL}/api/auth/register`, credentials, json);
+  const token = http.post(`${BASE_URL}/api/auth/login`, credentials, json).json('token');
+  const auth = { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } };
+
+  http.post(`${BASE_URL}/api/budgets`, JSON.stringify({
+    category: 'Food', amount: 500, startDate: '2024-01-01', endDate: '2024-12-31',
+  }), auth);
+  const seed = [];
+  for (let i = 0; i < 1000; i++) {
+    seed.push({ title: `seed ${i}`, amount: 10 + (i % 50), date: `2024-${String(i % 12 + 1).padStart(2, '0')}-15`, category: 'Food' });
+  }
+  http.post(`${BASE_URL}/api/expenses/bulk`, JSON.stringify(seed), auth);
+  return { auth };
+}
+
+export function listExpenses(data) {
+  const res = http.get(`${BASE_URL}/api/expenses/page?limit=50`, data.auth);
+  check(res, { 'page 200': (r) => r.status === 200 });
+}
+
+export function budgetStatus(data) {
+  const res = http.get(`${BASE_URL}/api/budgets/status`, data.auth);
+  check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function createExpense(data) {
+  const res = http.post(`${BASE_URL}/api/expenses`, JSON.stringify({
+    title: 'load', amount: 12.5, date: '2024-06-01', category: 'Food',
+  }), data.auth);
+  check(res, { 'create 200': (r) => r.status === 200 });
+}
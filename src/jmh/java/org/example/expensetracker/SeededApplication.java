@@ -0,0 +1,116 @@
+package org.example.expensetracker;
+
+import org.example.expensetracker.model.Budget;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.UserRepository;
+import org.example.expensetracker.security.AuthenticatedUser;
+import org.example.expensetracker.service.BudgetService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application against a private in-memory H2 database holding one user with {@code size}
+ * expenses spread over {@link #CATEGORIES} and the year {@link #YEAR}, plus one budget per category.
+ * The user is installed as the global security principal so services that read it work on JMH threads.
+ */
+public final class SeededApplication implements AutoCloseable {
+    public static final List<String> CATEGORIES =
+            List.of("Food", "Rent", "Travel", "Fuel", "Health", "Books", "Games", "Gifts", "Tools", "Other");
+    public static final int YEAR = 2025;
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+    private final Long userId;
+
+    public SeededApplication(int size) {
+        this(size, "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * @param datastoreArgs arguments choosing the database, either a datasource URL or a profile with its
+     *                      settings, plus any other property overrides
+     */
+    public SeededApplication(int size, String... datastoreArgs) {
+        // Passed as arguments so they take precedence over application.properties; the budget read caches
+        // are off so the benchmarks measure the queries behind them
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.jpa.open-in-view=false",
+                "--spring.cache.type=none"));
+        args.addAll(List.of(datastoreArgs));
+        context = new SpringApplicationBuilder(ExpenseTrackerApplication.class).run(args.toArray(String[]::new));
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setPassword("unused");
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        seedExpenses(size);
+        for (String category : CATEGORIES) {
+            Budget budget = new Budget();
+            budget.setUser(user);
+            budget.setCategory(category);
+            budget.setAmount(Money.of(BigDecimal.valueOf(1_000_000)));
+            budget.setStartDate(LocalDate.of(YEAR, 1, 1));
+            budget.setEndDate(LocalDate.of(YEAR, 12, 31));
+            context.getBean(BudgetService.class).createBudget(budget);
+        }
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        AuthenticatedUser principal = new AuthenticatedUser(userId, user.getUsername());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // Plain JDBC batches: going through the services would also build the rollup and take far longer
+    private void seedExpenses(int size) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(YEAR, 1, 1);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= size; i++) {
+            rows.add(new Object[]{
+                    (long) i,
+                    "Merchant " + random.nextInt(500),
+                    BigDecimal.valueOf(100 + random.nextInt(20_000), 2),
+                    Date.valueOf(start.plusDays(random.nextInt(365))),
+                    CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                    userId});
+            if (rows.size() == INSERT_BATCH || i == size) {
+                jdbc.batchUpdate("insert into expense (id, title, amount, date, category, user_id) "
+                        + "values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        // Past the seeded ids, so expenses created through the services do not collide with them
+        jdbc.execute("alter sequence expense_seq restart with " + (size + 100));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    @Override
+    public void close() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.expensetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.expensetracker.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a list of 10k expense rows in each negotiable format, with the mapper settings from
+ * application.properties. Payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<ExpenseResponse> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        mapper = new Jackson2ObjectMapperBuilder()
+                .factory(factory)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Random random = new Random(42);
+        expenses = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            expenses.add(new ExpenseResponse(i, "Merchant " + random.nextInt(500),
+                    Money.ofMinor(100 + random.nextInt(20_000)),
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)),
+                    "Category " + random.nextInt(10), random.nextInt(4) == 0 ? "Note " + i : null));
+        }
+        System.out.printf("%n%s payload for %d expenses: %d bytes%n", format, size, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(expenses);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.expensetracker.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing 1M amounts as BigDecimal (the previous representation) against Money's long minor units.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneySumBenchmark {
+    private static final int SIZE = 1_000_000;
+
+    private BigDecimal[] decimals;
+    private Money[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        decimals = new BigDecimal[SIZE];
+        amounts = new Money[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            long cents = 100 + random.nextInt(20_000);
+            decimals[i] = BigDecimal.valueOf(cents, 2);
+            amounts[i] = Money.ofMinor(cents);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalSum() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneySum() {
+        Money total = Money.ZERO;
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long minorUnitSum() {
+        long total = 0;
+        for (Money amount : amounts) {
+            total = Math.addExact(total, amount.minorUnits());
+        }
+        return total;
+    }
+}
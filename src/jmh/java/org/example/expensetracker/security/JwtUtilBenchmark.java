@@ -0,0 +1,51 @@
+package org.example.expensetracker.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. validateToken hits the verified-token cache after the first call;
+ * validateTokenUncached cycles through more tokens than the cache holds, so most calls verify the signature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    private static final int DISTINCT_TOKENS = 40_000;
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken("bench");
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens[i] = jwtUtil.generateToken("user" + i);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        String candidate = tokens[next];
+        next = next + 1 == DISTINCT_TOKENS ? 0 : next + 1;
+        return jwtUtil.validateToken(candidate);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.expensetracker.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter checks from 64 threads. sharedClient has every thread take tokens from one bucket that
+ * never runs dry, the worst case for the compare-and-set; sharedClientExhausted is the same bucket
+ * flooded past its limit; perThreadClient gives each thread its own key; churningClients draws from
+ * more keys than the map holds, so most calls create a bucket and evict another.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    private static final int MAX_CLIENTS = 10_000;
+    private static final int CHURN_KEYS = 1_000_000;
+
+    private RateLimiter unlimited;
+    private RateLimiter limited;
+    private String[] churnKeys;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        String key;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            key = "user:" + Thread.currentThread().getId();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        unlimited = new RateLimiter(Integer.MAX_VALUE, Duration.ofNanos(1), Integer.MAX_VALUE, MAX_CLIENTS);
+        limited = new RateLimiter(100, Duration.ofMillis(20), 16, MAX_CLIENTS);
+        churnKeys = new String[CHURN_KEYS];
+        for (int i = 0; i < CHURN_KEYS; i++) {
+            churnKeys[i] = "ip:" + i;
+        }
+    }
+
+    @Benchmark
+    public long sharedClient() {
+        return unlimited.client("user:1").tryAcquire();
+    }
+
+    @Benchmark
+    public long sharedClientExhausted() {
+        return limited.client("user:1").tryAcquire();
+    }
+
+    @Benchmark
+    public long perThreadClient(ThreadKey thread) {
+        return limited.client(thread.key).tryAcquire();
+    }
+
+    @Benchmark
+    public long churningClients() {
+        return limited.client(churnKeys[ThreadLocalRandom.current().nextInt(CHURN_KEYS)]).tryAcquire();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.SeededApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budget status over seeded H2 data: one category (aggregate query) and all budgets at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BudgetServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private SeededApplication app;
+    private BudgetService budgetService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = new SeededApplication(size);
+        budgetService = app.getBean(BudgetService.class);
+        userId = app.userId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> budgetStatus() {
+        return budgetService.getBudgetStatus(userId, "Food");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> allBudgetStatuses() {
+        return budgetService.getAllBudgetStatuses(userId);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.SeededApplication;
+import org.example.expensetracker.model.Budget;
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.BudgetRepository;
+import org.example.expensetracker.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The default in-memory H2 against the "file" profile (H2 on disk in PostgreSQL mode), each with and without
+ * the Hibernate second-level cache: an expense insert with its version bump and rollup, a budget update,
+ * a budget status read, and budget loads by id, which the second-level cache serves. The user load by id
+ * is not cached in either mode and serves as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatastoreBenchmark {
+
+    @Param({"mem", "file"})
+    public String datastore;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    @Param({"10000"})
+    public int size;
+
+    private SeededApplication app;
+    private Path dataDirectory;
+    private ExpenseService expenseService;
+    private BudgetService budgetService;
+    private UserRepository userRepository;
+    private BudgetRepository budgetRepository;
+    private Long userId;
+    private Long budgetId;
+    private long updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String cacheArg = "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache;
+        if (datastore.equals("file")) {
+            dataDirectory = Files.createTempDirectory("bench-datastore");
+            app = new SeededApplication(size, "--spring.profiles.active=file",
+                    "--app.datastore.h2-file=" + dataDirectory.resolve("expensetracker"), cacheArg);
+        } else {
+            app = new SeededApplication(size,
+                    "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", cacheArg);
+        }
+        expenseService = app.getBean(ExpenseService.class);
+        budgetService = app.getBean(BudgetService.class);
+        userRepository = app.getBean(UserRepository.class);
+        budgetRepository = app.getBean(BudgetRepository.class);
+        userId = app.userId();
+        budgetId = budgetRepository.findByUserIdAndCategory(userId, "Food").get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+        if (dataDirectory != null) {
+            try (Stream<Path> files = Files.walk(dataDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Expense createExpense() {
+        User user = new User();
+        user.setId(userId);
+        Expense expense = new Expense();
+        expense.setTitle("Merchant 1");
+        expense.setAmount(Money.of(new BigDecimal("12.50")));
+        expense.setDate(LocalDate.of(SeededApplication.YEAR, 6, 1));
+        expense.setCategory("Food");
+        expense.setUser(user);
+        return expenseService.createExpense(expense);
+    }
+
+    @Benchmark
+    public Budget updateBudget() {
+        Budget budget = new Budget();
+        budget.setCategory("Food");
+        budget.setAmount(Money.ofMinor(100_000_000 + (updates++ & 1)));
+        budget.setStartDate(LocalDate.of(SeededApplication.YEAR, 1, 1));
+        budget.setEndDate(LocalDate.of(SeededApplication.YEAR, 12, 31));
+        return budgetService.updateBudget(budgetId, budget);
+    }
+
+    @Benchmark
+    public Map<String, Object> budgetStatus() {
+        return budgetService.getBudgetStatus(userId, "Food");
+    }
+
+    @Benchmark
+    public Optional<User> findUser() {
+        return userRepository.findById(userId);
+    }
+
+    @Benchmark
+    public Optional<Budget> findBudget() {
+        return budgetRepository.findById(budgetId);
+    }
+}
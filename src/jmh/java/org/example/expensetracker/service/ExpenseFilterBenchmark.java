@@ -0,0 +1,59 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.SeededApplication;
+import org.example.expensetracker.dto.ExpenseResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseService.filterExpenses for each combination of the optional category and date filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseFilterBenchmark {
+    private static final String START = SeededApplication.YEAR + "-03-01";
+    private static final String END = SeededApplication.YEAR + "-03-31";
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private SeededApplication app;
+    private ExpenseService expenseService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = new SeededApplication(size);
+        expenseService = app.getBean(ExpenseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> noFilter() {
+        return expenseService.filterExpenses(null, null, null);
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> category() {
+        return expenseService.filterExpenses("Food", null, null);
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> dateRange() {
+        return expenseService.filterExpenses(null, START, END);
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> categoryAndDateRange() {
+        return expenseService.filterExpenses("Food", START, END);
+    }
+}
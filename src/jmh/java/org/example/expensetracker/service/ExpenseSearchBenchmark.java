@@ -0,0 +1,57 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.SeededApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseSearchService.search over seeded titles ("Merchant 0" to "Merchant 499"): a selective query, a
+ * query matching every expense, and the deepest page the search window allows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private SeededApplication app;
+    private ExpenseSearchService searchService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = new SeededApplication(size);
+        searchService = app.getBean(ExpenseSearchService.class);
+        userId = app.userId();
+        // Seed rows are inserted with JDBC, bypassing the change events
+        searchService.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> selectiveTerm() throws IOException {
+        return searchService.search(userId, "merchant 42", 0, 50);
+    }
+
+    @Benchmark
+    public Map<String, Object> matchAll() throws IOException {
+        return searchService.search(userId, "merchant", 0, 50);
+    }
+
+    @Benchmark
+    public Map<String, Object> deepPage() throws IOException {
+        return searchService.search(userId, "merchant", 199, 50);
+    }
+}
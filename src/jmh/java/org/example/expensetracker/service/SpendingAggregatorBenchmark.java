@@ -0,0 +1,49 @@
+package org.example.expensetracker.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Columnar aggregation of one user's expenses on one thread and on all cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpendingAggregatorBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private SpendingAggregator.Columns columns;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        columns = new SpendingAggregator.Columns(0, 364);
+        for (int i = 0; i < size; i++) {
+            columns.add(random.nextInt(365), 100 + random.nextInt(20_000),
+                    "Category " + random.nextInt(10), "merchant " + random.nextInt(500));
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SpendingAggregator.Totals aggregate() {
+        return SpendingAggregator.aggregate(columns, pool);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.SeededApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analytics endpoint's service over seeded H2 data: streaming the year's rows out of the database
+ * plus the aggregation, on one thread and on all cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpendingAnalyticsServiceBenchmark {
+    private static final String START = SeededApplication.YEAR + "-01-01";
+    private static final String END = SeededApplication.YEAR + "-12-31";
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private SeededApplication app;
+    private SpendingAnalyticsService spendingAnalyticsService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = new SeededApplication(size,
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--app.analytics.parallelism=" + parallelism);
+        spendingAnalyticsService = app.getBean(SpendingAnalyticsService.class);
+        userId = app.userId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> yearByMonth() {
+        return spendingAnalyticsService.getAnalytics(userId, START, END, "month", 10, 7);
+    }
+
+    @Benchmark
+    public Map<String, Object> yearByDay() {
+        return spendingAnalyticsService.getAnalytics(userId, START, END, "day", 10, 7);
+    }
+}
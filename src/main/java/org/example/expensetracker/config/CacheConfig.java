@@ -0,0 +1,59 @@
+package org.example.expensetracker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Spring Cache over Caffeine. The cache manager, its size limit and stats recording come from the
+ * spring.cache.* properties; entries are evicted by {@code BudgetCacheInvalidator} after commit.
+ * <p>
+ * Also holds the Hibernate second-level cache region for {@code Budget}, so budget loads by id skip the
+ * database. Hibernate keeps it consistent with its own writes. {@code User} is deliberately not cached:
+ * every expense and budget write bumps a version on the users row with a bulk JPQL update, which drops the
+ * whole region, and users are looked up by name rather than id anyway.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String BUDGET_STATUS = "budgetStatus";
+    public static final String BUDGET_STATUSES = "budgetStatuses";
+    public static final String USER_BUDGETS = "userBudgets";
+
+    // Region name given in Budget's @Cache annotation
+    public static final String BUDGETS_REGION = "budgets";
+
+    // Own provider instance, so each application context gets its own regions
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${app.entity-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.entity-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(BUDGETS_REGION, configuration);
+        // Same tag keys as the other cache meters; see PrincipalCache
+        JCacheMetrics.monitor(meterRegistry, cache, "cache.manager", "entityCacheManager", "name", BUDGETS_REGION);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
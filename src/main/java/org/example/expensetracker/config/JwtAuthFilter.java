@@ -1,9 +1,13 @@
 package org.example.expensetracker.config;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.expensetracker.security.JwtUtil;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.example.expensetracker.security.PrincipalCache;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,38 +19,60 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
+    // Time spent authenticating, excluding the rest of the chain, by outcome
+    private final Timer authenticatedTimer;
+    private final Timer anonymousTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, PrincipalCache principalCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.meterRegistry = meterRegistry;
+        this.authenticatedTimer = timer("authenticated");
+        this.anonymousTimer = timer("anonymous");
+        this.rejectedTimer = timer("rejected");
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .description("JWT verification and principal lookup")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer outcome = anonymousTimer;
         String header = request.getHeader("Authorization");
-        String token = null;
         String username = null;
 
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(token);
-            } catch (Exception e) {
-                // Invalid token
-            }
+            // Verifies the signature and expiry and extracts the subject in a single parse
+            username = jwtUtil.parseToken(header.substring(7))
+                    .map(Claims::getSubject)
+                    .orElse(null);
+            // Stays rejected unless the subject resolves to a principal below
+            outcome = rejectedTimer;
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token)) {
+            try {
+                var principal = principalCache.get(username);
                 var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                outcome = authenticatedTimer;
+            } catch (UsernameNotFoundException e) {
+                // Token for a user that no longer exists
             }
         }
+        sample.stop(outcome);
         filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package org.example.expensetracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.expensetracker.security.AuthenticatedUser;
+import org.example.expensetracker.security.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs right after {@link JwtAuthFilter}: authenticated requests draw from their user's bucket, anonymous
+ * ones from their IP's. Login and registration hash passwords with bcrypt, so they draw from a separate,
+ * much smaller per-IP bucket. A request over either the rate or the in-flight cap gets 429 with
+ * {@code Retry-After}. Streamed responses count as in flight only until their handler returns.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter apiLimiter;
+    private final RateLimiter loginLimiter;
+    private final Counter apiRejected;
+    private final Counter apiConcurrencyRejected;
+    private final Counter loginRejected;
+    private final Counter loginConcurrencyRejected;
+
+    public RateLimitFilter(RateLimiter apiLimiter, RateLimiter loginLimiter, MeterRegistry meterRegistry) {
+        this.apiLimiter = apiLimiter;
+        this.loginLimiter = loginLimiter;
+        this.apiRejected = rejected(meterRegistry, "api", "rate");
+        this.apiConcurrencyRejected = rejected(meterRegistry, "api", "concurrency");
+        this.loginRejected = rejected(meterRegistry, "login", "rate");
+        this.loginConcurrencyRejected = rejected(meterRegistry, "login", "concurrency");
+        clients(meterRegistry, "api", apiLimiter);
+        clients(meterRegistry, "login", loginLimiter);
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String limit, String reason) {
+        return Counter.builder("rate.limit.rejected")
+                .description("Requests turned away with 429")
+                .tag("limit", limit)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void clients(MeterRegistry meterRegistry, String limit, RateLimiter limiter) {
+        Gauge.builder("rate.limit.clients", limiter, RateLimiter::trackedClients)
+                .description("Clients with a live token bucket")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    // The Prometheus scraper and health probes are never throttled
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean login = isLogin(request);
+        RateLimiter.Client client = login
+                ? loginLimiter.client(request.getRemoteAddr())
+                : apiLimiter.client(clientKey(request));
+
+        long waitNanos = client.tryAcquire();
+        if (waitNanos > 0) {
+            (login ? loginRejected : apiRejected).increment();
+            reject(response, waitNanos);
+            return;
+        }
+        if (!client.tryEnter()) {
+            (login ? loginConcurrencyRejected : apiConcurrencyRejected).increment();
+            reject(response, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            client.exit();
+        }
+    }
+
+    private static boolean isLogin(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return "POST".equals(request.getMethod())
+                && (uri.equals("/api/auth/login") || uri.equals("/api/auth/register"));
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, retry in " + seconds + " s");
+    }
+}
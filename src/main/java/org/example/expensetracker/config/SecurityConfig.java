@@ -1,8 +1,13 @@
 package org.example.expensetracker.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.example.expensetracker.security.JwtUtil;
+import org.example.expensetracker.security.PrincipalCache;
+import org.example.expensetracker.security.RateLimiter;
 import org.example.expensetracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +22,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 
 @Configuration
 public class SecurityConfig {
@@ -27,9 +34,43 @@ public class SecurityConfig {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private long rateLimitMaxClients;
+
+    @Value("${app.rate-limit.api.capacity:100}")
+    private int apiCapacity;
+
+    @Value("${app.rate-limit.api.refill-period:20ms}")
+    private Duration apiRefillPeriod;
+
+    @Value("${app.rate-limit.api.max-concurrent:16}")
+    private int apiMaxConcurrent;
+
+    @Value("${app.rate-limit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${app.rate-limit.login.refill-period:6s}")
+    private Duration loginRefillPeriod;
+
+    @Value("${app.rate-limit.login.max-concurrent:2}")
+    private int loginMaxConcurrent;
+
+    // Raising it rehashes each user's password on their next login
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -48,13 +89,30 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**").permitAll()
+                        // Async dispatches (streamed responses) and error dispatches (e.g. a 400 for an
+                        // unreadable body) were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        // Password changes and /me need a token like every other endpoint
+                        .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
+                        // Health probes and the Prometheus scraper; keep the port off public networks
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthFilter(jwtUtil, userDetailsService()), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthFilter(jwtUtil, principalCache, meterRegistry), UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            http.addFilterAfter(rateLimitFilter(), JwtAuthFilter.class);
+        }
         return http.build();
     }
 
+    // Not a bean, so it only runs inside the security chain, after the principal is known
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(
+                new RateLimiter(apiCapacity, apiRefillPeriod, apiMaxConcurrent, rateLimitMaxClients),
+                new RateLimiter(loginCapacity, loginRefillPeriod, loginMaxConcurrent, rateLimitMaxClients),
+                meterRegistry);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
         return configuration.getAuthenticationManager();
@@ -1,8 +1,18 @@
 package org.example.expensetracker.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -19,4 +29,35 @@ public class WebConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    // The conditional GET endpoints send one ETag per collection version whichever format was negotiated,
+    // so caches must also key on Accept or they could answer a JSON request with a stored CBOR body.
+    // Set before the handler runs so 304 responses carry it too.
+    @Bean
+    public WebMvcConfigurer varyByAcceptConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                        return true;
+                    }
+                }).addPathPatterns("/api/expenses", "/api/expenses/filter", "/api/budgets", "/api/budgets/status");
+            }
+        };
+    }
+
+    // Binary formats for clients sending Accept: application/cbor or application/x-jackson-smile.
+    // Built from Boot's builder so they share the spring.jackson.* settings of the JSON converter.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -2,15 +2,20 @@ package org.example.expensetracker.controller;
 
 import org.example.expensetracker.model.User;
 import org.example.expensetracker.repository.UserRepository;
+import org.example.expensetracker.security.AuthenticatedUser;
 import org.example.expensetracker.security.JwtUtil;
+import org.example.expensetracker.security.PasswordHasher;
+import org.example.expensetracker.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -20,35 +25,96 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
             return ResponseEntity.badRequest().body("Username already exists");
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        try {
+            user.setPassword(passwordHasher.encode(user.getPassword()));
+        } catch (RejectedExecutionException e) {
+            return busy(e);
+        }
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
         return ResponseEntity.ok("User registered successfully");
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody User user) {
         Optional<User> dbUser = userRepository.findByUsername(user.getUsername());
-        if (dbUser.isPresent() && passwordEncoder.matches(user.getPassword(), dbUser.get().getPassword())) {
-            String token = jwtUtil.generateToken(user.getUsername());
-            return ResponseEntity.ok(Map.of("token", token));
+        try {
+            if (dbUser.isPresent() && passwordHasher.matches(user.getPassword(), dbUser.get().getPassword())) {
+                upgradePassword(dbUser.get(), user.getPassword());
+                String token = jwtUtil.generateToken(user.getUsername());
+                return ResponseEntity.ok(Map.of("token", token));
+            }
+        } catch (RejectedExecutionException e) {
+            return busy(e);
         }
         return ResponseEntity.status(401).body("Invalid username or password");
     }
 
+    // Rehashes at the current bcrypt strength once the password is known to be right. Skipped when the
+    // hashing pool is busy (the next login tries again) or the password changed in the meantime.
+    private void upgradePassword(User dbUser, String rawPassword) {
+        String current = dbUser.getPassword();
+        if (!passwordHasher.upgradeEncoding(current)) {
+            return;
+        }
+        try {
+            userRepository.updatePassword(dbUser.getId(), current, passwordHasher.encode(rawPassword));
+        } catch (RejectedExecutionException e) {
+            // Login still succeeds with the old hash
+        }
+    }
+
+    private static ResponseEntity<String> busy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    @PutMapping("/password")
+    public ResponseEntity<?> changePassword(@RequestBody Map<String, String> request, Authentication authentication) {
+        Long userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        Optional<User> found = userRepository.findById(userId);
+        if (found.isEmpty()) {
+            return ResponseEntity.status(401).body("User not found");
+        }
+        User dbUser = found.get();
+        try {
+            if (!passwordHasher.matches(request.get("currentPassword"), dbUser.getPassword())) {
+                return ResponseEntity.status(401).body("Invalid current password");
+            }
+            if (request.get("newPassword") == null || request.get("newPassword").isEmpty()) {
+                return ResponseEntity.badRequest().body("New password is required");
+            }
+            // Only the password column: a full-row save would write back stale data version counters
+            String password = passwordHasher.encode(request.get("newPassword"));
+            if (userRepository.updatePassword(dbUser.getId(), dbUser.getPassword(), password) == 0) {
+                return ResponseEntity.status(409).body("Password was changed concurrently, please retry");
+            }
+        } catch (RejectedExecutionException e) {
+            return busy(e);
+        }
+        principalCache.evict(dbUser.getUsername());
+        return ResponseEntity.ok("Password changed successfully");
+    }
+
     @GetMapping("/me")
-    public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+        Long userId = ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        return userRepository.findById(userId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(401).body("User not found"));
     }
 }
\ No newline at end of file
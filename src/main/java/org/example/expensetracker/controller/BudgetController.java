@@ -1,15 +1,23 @@
 package org.example.expensetracker.controller;
 
+import org.example.expensetracker.dto.BudgetResponse;
+import org.example.expensetracker.dto.CollectionVersion;
 import org.example.expensetracker.model.Budget;
 import org.example.expensetracker.model.User;
+import org.example.expensetracker.security.AuthenticatedUser;
+import org.example.expensetracker.service.BudgetAlertService;
 import org.example.expensetracker.service.BudgetService;
+import org.example.expensetracker.service.DataVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,11 +29,17 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private BudgetAlertService budgetAlertService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
     @PostMapping
     public ResponseEntity<?> createBudget(@RequestBody Budget budget, Authentication authentication) {
         try {
-            logger.info("Creating budget for user: {}", authentication.getName());
-            logger.info("Budget data: {}", budget);
+            logger.debug("Creating budget for user: {}", authentication.getName());
+            logger.debug("Budget data: {}", budget);
             
             // Get the current user
             User currentUser = new User();
@@ -35,11 +49,11 @@ public class BudgetController {
             budget.setUser(currentUser);
             
             // Log the budget after setting the user
-            logger.info("Budget with user set: {}", budget);
+            logger.debug("Budget with user set: {}", budget);
             
             Budget savedBudget = budgetService.createBudget(budget);
-            logger.info("Budget created successfully with ID: {}", savedBudget.getId());
-            return ResponseEntity.ok(savedBudget);
+            logger.debug("Budget created successfully with ID: {}", savedBudget.getId());
+            return ResponseEntity.ok(BudgetResponse.from(savedBudget));
         } catch (Exception e) {
             logger.error("Error creating budget: ", e);
             return ResponseEntity.badRequest().body("Failed to create budget: " + e.getMessage());
@@ -47,10 +61,17 @@ public class BudgetController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getUserBudgets(Authentication authentication) {
+    public ResponseEntity<?> getUserBudgets(Authentication authentication, WebRequest webRequest) {
         try {
-            logger.info("Fetching budgets for user: {}", authentication.getName());
-            return ResponseEntity.ok(budgetService.getUserBudgets(getUserId(authentication)));
+            logger.debug("Fetching budgets for user: {}", authentication.getName());
+            Long userId = getUserId(authentication);
+            CollectionVersion version = dataVersionService.getBudgetsVersion(userId);
+            if (webRequest.checkNotModified(version.eTag("budgets"), version.lastModified())) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(budgetService.getUserBudgets(userId));
         } catch (Exception e) {
             logger.error("Error fetching budgets: ", e);
             return ResponseEntity.badRequest().body("Failed to fetch budgets: " + e.getMessage());
@@ -60,8 +81,8 @@ public class BudgetController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateBudget(@PathVariable Long id, @RequestBody Budget budget, Authentication authentication) {
         try {
-            logger.info("Updating budget {} for user: {}", id, authentication.getName());
-            return ResponseEntity.ok(budgetService.updateBudget(id, budget));
+            logger.debug("Updating budget {} for user: {}", id, authentication.getName());
+            return ResponseEntity.ok(BudgetResponse.from(budgetService.updateBudget(id, budget)));
         } catch (Exception e) {
             logger.error("Error updating budget: ", e);
             return ResponseEntity.badRequest().body("Failed to update budget: " + e.getMessage());
@@ -71,7 +92,7 @@ public class BudgetController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBudget(@PathVariable Long id, Authentication authentication) {
         try {
-            logger.info("Deleting budget {} for user: {}", id, authentication.getName());
+            logger.debug("Deleting budget {} for user: {}", id, authentication.getName());
             budgetService.deleteBudget(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -80,13 +101,53 @@ public class BudgetController {
         }
     }
 
+    @GetMapping("/status")
+    public ResponseEntity<?> getAllBudgetStatuses(Authentication authentication, WebRequest webRequest) {
+        try {
+            logger.debug("Fetching all budget statuses for user: {}", authentication.getName());
+            Long userId = getUserId(authentication);
+            // Statuses change with either collection
+            CollectionVersion version = dataVersionService.getBudgetsVersion(userId)
+                    .plus(dataVersionService.getExpensesVersion(userId));
+            if (webRequest.checkNotModified(version.eTag("budget-status"), version.lastModified())) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(budgetService.getAllBudgetStatuses(userId));
+        } catch (Exception e) {
+            logger.error("Error fetching budget statuses: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch budget statuses: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/alerts")
+    public ResponseEntity<?> getBudgetAlerts(Authentication authentication) {
+        try {
+            logger.debug("Fetching budget alerts for user: {}", authentication.getName());
+            return ResponseEntity.ok(budgetAlertService.getAlerts(getUserId(authentication)));
+        } catch (Exception e) {
+            logger.error("Error fetching budget alerts: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch budget alerts: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{category}/status")
     public ResponseEntity<?> getBudgetStatus(
             @PathVariable String category,
+            @RequestParam(defaultValue = "true") boolean includeExpenses,
             Authentication authentication) {
         try {
-            logger.info("Fetching budget status for category {} and user: {}", category, authentication.getName());
-            return ResponseEntity.ok(budgetService.getBudgetStatus(getUserId(authentication), category));
+            logger.debug("Fetching budget status for category {} and user: {}", category, authentication.getName());
+            Long userId = getUserId(authentication);
+            Map<String, Object> status = budgetService.getBudgetStatus(userId, category);
+            if (!includeExpenses) {
+                return ResponseEntity.ok(status);
+            }
+            // The status map is shared through the cache; the expense list goes on a copy
+            Map<String, Object> withExpenses = new LinkedHashMap<>(status);
+            withExpenses.put("expenses", budgetService.getBudgetExpenses(userId, (BudgetResponse) status.get("budget")));
+            return ResponseEntity.ok(withExpenses);
         } catch (Exception e) {
             logger.error("Error fetching budget status: ", e);
             return ResponseEntity.badRequest().body("Failed to fetch budget status: " + e.getMessage());
@@ -94,8 +155,6 @@ public class BudgetController {
     }
 
     private Long getUserId(Authentication authentication) {
-        // This should be implemented based on your user authentication setup
-        // For now, we'll return a default user ID
-        return 1L;
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
     }
 } 
\ No newline at end of file
@@ -1,15 +1,39 @@
 package org.example.expensetracker.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.expensetracker.dto.CollectionVersion;
+import org.example.expensetracker.dto.ExpenseResponse;
 import org.example.expensetracker.model.Expense;
 import org.example.expensetracker.model.User;
+import org.example.expensetracker.security.AuthenticatedUser;
+import org.example.expensetracker.service.DataVersionService;
+import org.example.expensetracker.service.ExpenseExportService;
+import org.example.expensetracker.service.ExpenseImportService;
+import org.example.expensetracker.service.ExpenseSearchService;
 import org.example.expensetracker.service.ExpenseService;
+import org.example.expensetracker.service.SpendingAnalyticsService;
+import org.example.expensetracker.service.SpendingRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,20 +45,47 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private SpendingAnalyticsService spendingAnalyticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Answers 304 from the user's expense counter before the list query runs
     @GetMapping
-    public List<Expense> getAllExpenses() {
-        return expenseService.getAllExpenses();
+    public ResponseEntity<List<ExpenseResponse>> getAllExpenses(Authentication authentication, WebRequest webRequest) {
+        if (notModified(authentication, webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(expenseService.getAllExpenses());
     }
 
     @GetMapping("/{id}")
-    public Optional<Expense> getExpenseById(@PathVariable Long id) {
+    public Optional<ExpenseResponse> getExpenseById(@PathVariable Long id) {
         return expenseService.getExpenseById(id);
     }
 
     @PostMapping
     public ResponseEntity<?> createExpense(@RequestBody Expense expense, Authentication authentication) {
         try {
-            logger.info("Creating expense for user: {}", authentication.getName());
+            logger.debug("Creating expense for user: {}", authentication.getName());
             
             // Get the current user
             User currentUser = new User();
@@ -44,7 +95,7 @@ public class ExpenseController {
             expense.setUser(currentUser);
             
             // Validate the expense
-            if (expense.getAmount() == null || expense.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
+            if (expense.getAmount() == null || !expense.getAmount().isPositive()) {
                 return ResponseEntity.badRequest().body("Expense amount must be greater than 0");
             }
             
@@ -53,30 +104,87 @@ public class ExpenseController {
             }
             
             Expense savedExpense = expenseService.createExpense(expense);
-            logger.info("Expense created successfully with ID: {}", savedExpense.getId());
-            return ResponseEntity.ok(savedExpense);
+            logger.debug("Expense created successfully with ID: {}", savedExpense.getId());
+            return ResponseEntity.ok(ExpenseResponse.from(savedExpense));
         } catch (Exception e) {
             logger.error("Error creating expense: ", e);
             return ResponseEntity.badRequest().body("Failed to create expense: " + e.getMessage());
         }
     }
 
-    @GetMapping
-    public ResponseEntity<?> getUserExpenses(Authentication authentication) {
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importExpensesJson(InputStream body, Authentication authentication) {
         try {
-            logger.info("Fetching expenses for user: {}", authentication.getName());
-            return ResponseEntity.ok(expenseService.getUserExpenses(getUserId(authentication)));
+            logger.debug("Importing JSON expenses for user: {}", authentication.getName());
+            return ResponseEntity.ok(expenseImportService.importJson(getUserId(authentication), body));
+        } catch (Exception e) {
+            logger.error("Error importing expenses: ", e);
+            return ResponseEntity.badRequest().body("Failed to import expenses: " + e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> importExpensesCsv(InputStream body, Authentication authentication) {
+        try {
+            logger.debug("Importing CSV expenses for user: {}", authentication.getName());
+            return ResponseEntity.ok(expenseImportService.importCsv(getUserId(authentication), body));
+        } catch (Exception e) {
+            logger.error("Error importing expenses: ", e);
+            return ResponseEntity.badRequest().body("Failed to import expenses: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<?> getUserExpenses(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        try {
+            logger.debug("Fetching expenses for user: {}", authentication.getName());
+            return ResponseEntity.ok(expenseService.getExpensePage(category, startDate, endDate, cursor, limit));
         } catch (Exception e) {
             logger.error("Error fetching expenses: ", e);
             return ResponseEntity.badRequest().body("Failed to fetch expenses: " + e.getMessage());
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<?> searchExpenses(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        try {
+            logger.debug("Searching expenses for user: {}", authentication.getName());
+            return ResponseEntity.ok(expenseSearchService.search(getUserId(authentication), q, page, size));
+        } catch (Exception e) {
+            logger.error("Error searching expenses: ", e);
+            return ResponseEntity.badRequest().body("Failed to search expenses: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getExpenseChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        try {
+            logger.debug("Fetching expense changes for user: {}", authentication.getName());
+            return ResponseEntity.ok(expenseService.getChanges(getUserId(authentication), since, limit));
+        } catch (Exception e) {
+            logger.error("Error fetching expense changes: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch expense changes: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateExpense(@PathVariable Long id, @RequestBody Expense expense, Authentication authentication) {
         try {
-            logger.info("Updating expense {} for user: {}", id, authentication.getName());
-            return ResponseEntity.ok(expenseService.updateExpense(id, expense));
+            logger.debug("Updating expense {} for user: {}", id, authentication.getName());
+            return ResponseEntity.ok(ExpenseResponse.from(expenseService.updateExpense(id, expense)));
         } catch (Exception e) {
             logger.error("Error updating expense: ", e);
             return ResponseEntity.badRequest().body("Failed to update expense: " + e.getMessage());
@@ -86,7 +194,7 @@ public class ExpenseController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteExpense(@PathVariable Long id, Authentication authentication) {
         try {
-            logger.info("Deleting expense {} for user: {}", id, authentication.getName());
+            logger.debug("Deleting expense {} for user: {}", id, authentication.getName());
             expenseService.deleteExpense(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -96,17 +204,152 @@ public class ExpenseController {
     }
 
     @GetMapping("/filter")
-    public List<Expense> filterExpenses(
+    public ResponseEntity<List<ExpenseResponse>> filterExpenses(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate
+            @RequestParam(required = false) String endDate,
+            Authentication authentication,
+            WebRequest webRequest
     ) {
-        return expenseService.filterExpenses(category, startDate, endDate);
+        if (notModified(authentication, webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(expenseService.filterExpenses(category, startDate, endDate));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> getMonthlySummary(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            Authentication authentication) {
+        try {
+            logger.debug("Fetching monthly summary for user: {}", authentication.getName());
+            return ResponseEntity.ok(spendingRollupService.getMonthlySummary(getUserId(authentication), from, to));
+        } catch (Exception e) {
+            logger.error("Error fetching monthly summary: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch monthly summary: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "month") String groupBy,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(defaultValue = "7") int window,
+            Authentication authentication) {
+        try {
+            logger.debug("Fetching analytics for user: {}", authentication.getName());
+            return ResponseEntity.ok(spendingAnalyticsService.getAnalytics(
+                    getUserId(authentication), startDate, endDate, groupBy, top, window));
+        } catch (Exception e) {
+            logger.error("Error fetching analytics: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch analytics: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<?> rebuildMonthlySummary(Authentication authentication) {
+        try {
+            logger.debug("Rebuilding monthly summary for user: {}", authentication.getName());
+            spendingRollupService.rebuild(getUserId(authentication));
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            logger.error("Error rebuilding monthly summary: ", e);
+            return ResponseEntity.badRequest().body("Failed to rebuild monthly summary: " + e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            Authentication authentication) {
+        // Resolve the user on the request thread; the body is written on an async thread
+        Long userId = getUserId(authentication);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                expenseService.streamExpenses(userId, category, startDate, endDate, expense -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(expense));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Declared as StreamingResponseBody so MVC writes it on an async thread as rows are read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            Authentication authentication) {
+        Long userId = getUserId(authentication);
+        // Validated here: once streaming starts the status is already 200
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = from != null ? LocalDate.parse(from) : null;
+            end = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return exportError(e.getMessage());
+        }
+        if (start != null && end != null && end.isBefore(start)) {
+            return exportError("from must not be after to");
+        }
+        StreamingResponseBody body;
+        MediaType contentType;
+        switch (format) {
+            case "csv" -> {
+                body = outputStream -> expenseExportService.writeCsv(userId, start, end, outputStream);
+                contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+            }
+            case "xlsx" -> {
+                body = outputStream -> expenseExportService.writeXlsx(userId, start, end, outputStream);
+                contentType = MediaType.parseMediaType(
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            }
+            default -> {
+                return exportError("unsupported format " + format);
+            }
+        }
+        String filename = "expenses" + (start != null ? "-" + start : "") + (end != null ? "-" + end : "") + "." + format;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportError(String reason) {
+        String message = "Failed to export expenses: " + reason;
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Also sets ETag / Last-Modified on the response, or the 304 status when the client copy is current
+    private boolean notModified(Authentication authentication, WebRequest webRequest) {
+        CollectionVersion version = dataVersionService.getExpensesVersion(getUserId(authentication));
+        return webRequest.checkNotModified(version.eTag("expenses"), version.lastModified());
     }
 
     private Long getUserId(Authentication authentication) {
-        // This should be implemented based on your user authentication setup
-        // For now, we'll return a default user ID
-        return 1L;
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package org.example.expensetracker.controller;
+
+import org.example.expensetracker.dto.RecurringExpenseResponse;
+import org.example.expensetracker.model.RecurringExpense;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.security.AuthenticatedUser;
+import org.example.expensetracker.service.RecurringExpenseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@RestController
+@RequestMapping("/api/recurring-expenses")
+public class RecurringExpenseController {
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseController.class);
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @PostMapping
+    public ResponseEntity<?> createRecurringExpense(@RequestBody RecurringExpense recurring, Authentication authentication) {
+        try {
+            logger.debug("Creating recurring expense for user: {}", authentication.getName());
+            User currentUser = new User();
+            currentUser.setId(getUserId(authentication));
+            recurring.setUser(currentUser);
+            return ResponseEntity.ok(RecurringExpenseResponse.from(recurringExpenseService.create(recurring)));
+        } catch (Exception e) {
+            logger.error("Error creating recurring expense: ", e);
+            return ResponseEntity.badRequest().body("Failed to create recurring expense: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getRecurringExpenses(Authentication authentication) {
+        try {
+            logger.debug("Fetching recurring expenses for user: {}", authentication.getName());
+            return ResponseEntity.ok(recurringExpenseService.getUserRecurringExpenses(getUserId(authentication)));
+        } catch (Exception e) {
+            logger.error("Error fetching recurring expenses: ", e);
+            return ResponseEntity.badRequest().body("Failed to fetch recurring expenses: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRecurringExpense(@PathVariable Long id, @RequestBody RecurringExpense recurring,
+                                                    Authentication authentication) {
+        try {
+            logger.debug("Updating recurring expense {} for user: {}", id, authentication.getName());
+            return ResponseEntity.ok(RecurringExpenseResponse.from(
+                    recurringExpenseService.update(id, getUserId(authentication), recurring)));
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Recurring expense {} changed during update: {}", id, e.getMessage());
+            return ResponseEntity.status(409).body("Recurring expense was changed concurrently, please retry");
+        } catch (Exception e) {
+            logger.error("Error updating recurring expense: ", e);
+            return ResponseEntity.badRequest().body("Failed to update recurring expense: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRecurringExpense(@PathVariable Long id, Authentication authentication) {
+        try {
+            logger.debug("Deleting recurring expense {} for user: {}", id, authentication.getName());
+            recurringExpenseService.delete(id, getUserId(authentication));
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            logger.error("Error deleting recurring expense: ", e);
+            return ResponseEntity.badRequest().body("Failed to delete recurring expense: " + e.getMessage());
+        }
+    }
+
+    private Long getUserId(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+    }
+}
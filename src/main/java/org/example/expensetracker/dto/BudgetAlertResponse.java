@@ -0,0 +1,16 @@
+package org.example.expensetracker.dto;
+
+import org.example.expensetracker.model.Money;
+
+import java.time.Instant;
+
+public record BudgetAlertResponse(
+        Long id,
+        Long budgetId,
+        String category,
+        int threshold,
+        Money spent,
+        Money budgetAmount,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,22 @@
+package org.example.expensetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.expensetracker.model.Budget;
+import org.example.expensetracker.model.Money;
+
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BudgetResponse(
+        Long id,
+        String category,
+        Money amount,
+        LocalDate startDate,
+        LocalDate endDate,
+        String description
+) {
+    public static BudgetResponse from(Budget budget) {
+        return new BudgetResponse(budget.getId(), budget.getCategory(), budget.getAmount(),
+                budget.getStartDate(), budget.getEndDate(), budget.getDescription());
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.expensetracker.dto;
+
+import java.time.Instant;
+
+/**
+ * Change counter and last-modified time of one of a user's collections, used for conditional GETs.
+ */
+public record CollectionVersion(Long userId, long version, Instant modifiedAt) {
+
+    // Weak: the same version may go out gzip-encoded or in another media type
+    public String eTag(String collection) {
+        return "W/\"" + collection + "-" + userId + "-" + version + "\"";
+    }
+
+    public long lastModified() {
+        return modifiedAt.toEpochMilli();
+    }
+
+    // Both counters only ever increase by one per write, so their sum changes whenever either does
+    public CollectionVersion plus(CollectionVersion other) {
+        return new CollectionVersion(userId, version + other.version,
+                modifiedAt.isAfter(other.modifiedAt) ? modifiedAt : other.modifiedAt);
+    }
+}
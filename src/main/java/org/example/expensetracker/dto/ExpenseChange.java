@@ -0,0 +1,22 @@
+package org.example.expensetracker.dto;
+
+import org.example.expensetracker.model.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Expense row read by delta sync together with the change version it was last written at.
+ */
+public record ExpenseChange(
+        Long id,
+        String title,
+        Money amount,
+        LocalDate date,
+        String category,
+        String description,
+        long changeVersion
+) {
+    public ExpenseResponse response() {
+        return new ExpenseResponse(id, title, amount, date, category, description);
+    }
+}
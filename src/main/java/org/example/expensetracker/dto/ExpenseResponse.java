@@ -0,0 +1,26 @@
+package org.example.expensetracker.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Expense as returned by the API. Read paths select it directly with a JPQL constructor expression,
+ * so no entity (and no owning User) is hydrated.
+ */
+@JsonSerialize(using = ExpenseResponseSerializer.class)
+public record ExpenseResponse(
+        Long id,
+        String title,
+        Money amount,
+        LocalDate date,
+        String category,
+        String description
+) {
+    public static ExpenseResponse from(Expense expense) {
+        return new ExpenseResponse(expense.getId(), expense.getTitle(), expense.getAmount(),
+                expense.getDate(), expense.getCategory(), expense.getDescription());
+    }
+}
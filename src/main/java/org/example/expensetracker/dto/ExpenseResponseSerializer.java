@@ -0,0 +1,42 @@
+package org.example.expensetracker.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes expense rows field by field, skipping nulls, instead of going through bean introspection.
+ * Dates are written as ISO strings, the same as the default Jackson configuration.
+ */
+public class ExpenseResponseSerializer extends StdSerializer<ExpenseResponse> {
+
+    public ExpenseResponseSerializer() {
+        super(ExpenseResponse.class);
+    }
+
+    @Override
+    public void serialize(ExpenseResponse expense, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(expense);
+        if (expense.id() != null) {
+            gen.writeNumberField("id", expense.id());
+        }
+        if (expense.title() != null) {
+            gen.writeStringField("title", expense.title());
+        }
+        if (expense.amount() != null) {
+            gen.writeNumberField("amount", expense.amount().toBigDecimal());
+        }
+        if (expense.date() != null) {
+            gen.writeStringField("date", expense.date().toString());
+        }
+        if (expense.category() != null) {
+            gen.writeStringField("category", expense.category());
+        }
+        if (expense.description() != null) {
+            gen.writeStringField("description", expense.description());
+        }
+        gen.writeEndObject();
+    }
+}
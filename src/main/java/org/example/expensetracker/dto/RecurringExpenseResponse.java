@@ -0,0 +1,25 @@
+package org.example.expensetracker.dto;
+
+import org.example.expensetracker.model.Cadence;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.RecurringExpense;
+
+import java.time.LocalDate;
+
+public record RecurringExpenseResponse(
+        Long id,
+        String title,
+        Money amount,
+        String category,
+        String description,
+        Cadence cadence,
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDate nextDueDate
+) {
+    public static RecurringExpenseResponse from(RecurringExpense recurring) {
+        return new RecurringExpenseResponse(recurring.getId(), recurring.getTitle(), recurring.getAmount(),
+                recurring.getCategory(), recurring.getDescription(), recurring.getCadence(),
+                recurring.getStartDate(), recurring.getEndDate(), recurring.getNextDueDate());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Raised once when spending in a budget's category and window first reaches {@code threshold} percent.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "budget_alert",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_alert_budget_threshold",
+                columnNames = {"budget_id", "threshold"}),
+        indexes = @Index(name = "idx_budget_alert_user_created", columnList = "user_id, created_at"))
+public class BudgetAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "budget_id", nullable = false)
+    private Budget budget;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private int threshold;
+
+    @Column(nullable = false)
+    private Money spent;
+
+    @Column(nullable = false)
+    private Money budgetAmount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,25 @@
+package org.example.expensetracker.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * How often a recurring expense falls due. Occurrences are counted from the start date rather than from
+ * the previous occurrence, so a monthly expense starting on the 31st comes back to the 31st after February.
+ */
+public enum Cadence {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    Cadence(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDate occurrence(LocalDate start, long index) {
+        return start.plus(index, unit);
+    }
+}
@@ -1,28 +1,47 @@
 package org.example.expensetracker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_expense_recurring_date",
+        columnNames = {"recurring_expense_id", "date"}), indexes = {
+        @Index(name = "idx_expense_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_expense_user_category_date", columnList = "user_id, category, date"),
+        @Index(name = "idx_expense_user_change", columnList = "user_id, change_version, id")
+})
 public class Expense {
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round-trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50)
     private Long id;
 
     private String title;
-    private BigDecimal amount;
+    private Money amount;
     private LocalDate date;
     private String category;
     private String description;
 
+    // User's expenses version at the last write; set by ExpenseService, never by clients
+    @JsonIgnore
+    @Column(nullable = false)
+    private long changeVersion;
+
+    // Definition this expense was materialized from, if any; set by RecurringExpenseService
+    @JsonIgnore
+    private Long recurringExpenseId;
+
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
@@ -0,0 +1,35 @@
+package org.example.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted expense so delta sync can tell clients to drop it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "expense_tombstone",
+        indexes = @Index(name = "idx_expense_tombstone_user_change", columnList = "user_id, change_version, expense_id"))
+public class ExpenseTombstone {
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,89 @@
+package org.example.expensetracker.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Fixed-point amount: a long count of minor units (cents) plus its currency. Arithmetic stays on
+ * primitive longs and fails on overflow instead of wrapping. The schema has no currency column, so
+ * every stored amount is in {@link #DEFAULT_CURRENCY}; JSON keeps the plain decimal number the API
+ * always returned. Serializable so cached entities can hold it in their disassembled state.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money>, Serializable {
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    // Rejects amounts with more decimals than the currency has, rather than rounding them away
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.setScale(DEFAULT_CURRENCY.getDefaultFractionDigits(), RoundingMode.UNNECESSARY)
+                    .unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.toPlainString());
+        }
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * This amount as a percentage of {@code whole}, computed from the exact minor-unit ratio.
+     */
+    public double percentOf(Money whole) {
+        checkCurrency(whole);
+        return whole.minorUnits == 0 ? 0 : minorUnits * 100.0 / whole.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.expensetracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup of a user's expenses for one category and calendar month; {@code month} is the first day of the month.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "monthly_spending",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_spending_user_category_month",
+                columnNames = {"user_id", "category", "spending_month"}),
+        indexes = @Index(name = "idx_monthly_spending_user_month", columnList = "user_id, spending_month"))
+public class MonthlySpending {
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    @JsonIgnore
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "spending_month", nullable = false)
+    private LocalDate month;
+
+    @Column(nullable = false)
+    private Money total;
+
+    @Column(nullable = false)
+    private long expenseCount;
+}
@@ -0,0 +1,61 @@
+package org.example.expensetracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recurring_expense", indexes = {
+        @Index(name = "idx_recurring_expense_due", columnList = "next_due_date, id"),
+        @Index(name = "idx_recurring_expense_user", columnList = "user_id")
+})
+public class RecurringExpense {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String title;
+
+    @Column(nullable = false)
+    private Money amount;
+
+    private String category;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Cadence cadence;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    // Maintained by RecurringExpenseService, never by clients
+    @JsonIgnore
+    private LocalDate nextDueDate;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private long occurrences;
+
+    // Edits and the materialization job both rewrite the row; whichever commits second fails and retries
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+}
@@ -1,9 +1,14 @@
 package org.example.expensetracker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
 
 @Entity
 @Data
@@ -18,5 +23,25 @@ public class User {
     @Column(unique = true)
     private String username;
 
+    // Accepted on register/login, never serialized or logged
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
     private String password;
+
+    // Bumped by every expense / budget write; see DataVersionService
+    @JsonIgnore
+    @Column(nullable = false)
+    private long expensesVersion;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private Instant expensesModifiedAt = Instant.now();
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private long budgetsVersion;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private Instant budgetsModifiedAt = Instant.now();
 }
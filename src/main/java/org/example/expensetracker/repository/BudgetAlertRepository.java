@@ -0,0 +1,26 @@
+package org.example.expensetracker.repository;
+
+import org.example.expensetracker.dto.BudgetAlertResponse;
+import org.example.expensetracker.model.BudgetAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    @Query("SELECT new org.example.expensetracker.dto.BudgetAlertResponse(" +
+           "a.id, a.budget.id, a.category, a.threshold, a.spent, a.budgetAmount, a.createdAt) " +
+           "FROM BudgetAlert a WHERE a.user.id = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<BudgetAlertResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT a.threshold FROM BudgetAlert a WHERE a.budget.id = :budgetId")
+    List<Integer> findThresholdsByBudgetId(@Param("budgetId") Long budgetId);
+
+    @Modifying
+    @Query("DELETE FROM BudgetAlert a WHERE a.budget.id IN :budgetIds")
+    void deleteByBudgetIdIn(@Param("budgetIds") Collection<Long> budgetIds);
+}
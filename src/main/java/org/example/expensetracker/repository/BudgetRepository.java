@@ -1,10 +1,31 @@
 package org.example.expensetracker.repository;
 
+import org.example.expensetracker.dto.BudgetResponse;
 import org.example.expensetracker.model.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
-    List<Budget> findByUserId(Long userId);
-    List<Budget> findByUserIdAndCategory(Long userId, String category);
-} 
\ No newline at end of file
+    // Explicit queries: derived "UserId" finders join users and filter on its key, which skips the indexes
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId")
+    List<Budget> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.category = :category")
+    List<Budget> findByUserIdAndCategory(@Param("userId") Long userId, @Param("category") String category);
+
+    @Query("SELECT new org.example.expensetracker.dto.BudgetResponse(" +
+           "b.id, b.category, b.amount, b.startDate, b.endDate, b.description) " +
+           "FROM Budget b WHERE b.user.id = :userId ORDER BY b.id")
+    List<BudgetResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    // One row per budget; an expense inside several overlapping budgets counts towards each of them
+    @Query("SELECT b.id AS budgetId, COALESCE(SUM(CAST(CAST(e.amount AS BigDecimal) * 100 AS long)), 0) AS totalCents, " +
+           "COUNT(e.id) AS count " +
+           "FROM Budget b LEFT JOIN Expense e ON e.user.id = b.user.id AND e.category = b.category " +
+           "AND e.date BETWEEN b.startDate AND b.endDate " +
+           "WHERE b.user.id = :userId GROUP BY b.id")
+    List<BudgetTotal> sumExpensesPerBudget(@Param("userId") Long userId);
+}
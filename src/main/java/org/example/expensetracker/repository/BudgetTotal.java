@@ -0,0 +1,8 @@
+package org.example.expensetracker.repository;
+
+public interface BudgetTotal {
+    Long getBudgetId();
+    // Minor units (cents)
+    Long getTotalCents();
+    Long getCount();
+}
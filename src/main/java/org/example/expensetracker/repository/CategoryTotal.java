@@ -0,0 +1,8 @@
+package org.example.expensetracker.repository;
+
+public interface CategoryTotal {
+    String getCategory();
+    // Minor units (cents)
+    Long getTotalCents();
+    Long getCount();
+}
@@ -1,22 +1,155 @@
 package org.example.expensetracker.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.expensetracker.dto.ExpenseChange;
+import org.example.expensetracker.dto.ExpenseResponse;
 import org.example.expensetracker.model.Expense;
 import org.example.expensetracker.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+    String SELECT_RESPONSE = "SELECT new org.example.expensetracker.dto.ExpenseResponse(" +
+                             "e.id, e.title, e.amount, e.date, e.category, e.description) FROM Expense e ";
+
     List<Expense> findByUser(User user);
     List<Expense> findByUserAndCategory(User user, String category);
     List<Expense> findByUserAndDateBetween(User user, LocalDate start, LocalDate end);
     List<Expense> findByUserAndCategoryAndDateBetween(User user, String category, LocalDate start, LocalDate end);
-    List<Expense> findByUserId(Long userId);
+
+    // Explicit queries: derived "UserId" finders join users and filter on its key, which skips the indexes
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId")
+    List<Expense> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.category = :category " +
+           "AND e.date BETWEEN :startDate AND :endDate")
     List<Expense> findByUserIdAndCategoryAndDateBetween(
-        Long userId, 
-        String category, 
-        LocalDate startDate, 
-        LocalDate endDate
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Money has no arithmetic in JPQL; sums cast the column back to numeric and add exact cents
+    @Query("SELECT e.category AS category, SUM(CAST(CAST(e.amount AS BigDecimal) * 100 AS long)) AS totalCents, " +
+           "COUNT(e) AS count FROM Expense e " +
+           "WHERE e.user.id = :userId AND e.category = :category AND e.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.category")
+    Optional<CategoryTotal> sumByUserIdAndCategoryAndDateBetween(
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT e.category AS category, YEAR(e.date) AS year, MONTH(e.date) AS month, " +
+           "SUM(CAST(CAST(e.amount AS BigDecimal) * 100 AS long)) AS totalCents, COUNT(e) AS count " +
+           "FROM Expense e " +
+           "WHERE e.user.id = :userId AND e.date IS NOT NULL " +
+           "GROUP BY e.category, YEAR(e.date), MONTH(e.date)")
+    List<MonthlyTotal> sumByUserIdPerCategoryAndMonth(@Param("userId") Long userId);
+
+    // Analytics scan: (date, amount in cents, category, title) tuples, read forward-only
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.date, CAST(CAST(e.amount AS BigDecimal) * 100 AS long), e.category, e.title FROM Expense e " +
+           "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate AND e.amount IS NOT NULL")
+    Stream<Object[]> streamAnalyticsRows(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Read paths select only the response columns; optional filters are skipped when null
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND (:startDate IS NULL OR e.date >= :startDate) " +
+           "AND (:endDate IS NULL OR e.date <= :endDate) " +
+           "ORDER BY e.id")
+    List<ExpenseResponse> findResponsesByUserId(
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query(SELECT_RESPONSE + "WHERE e.id IN :ids AND e.user.id = :userId")
+    List<ExpenseResponse> findResponsesByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE + "WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Keyset page ordered by (date desc, id desc); a null cursor starts from the newest expense. The date
+    // bounds are required, so the range can be read from idx_expense_user_date
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND e.date >= :startDate AND e.date <= :endDate " +
+           "AND (:cursorDate IS NULL OR e.date < :cursorDate OR (e.date = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseResponse> findPageByUserId(
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
+    @Query("SELECT e.date FROM Expense e WHERE e.recurringExpenseId = :recurringExpenseId " +
+           "AND e.date BETWEEN :startDate AND :endDate")
+    List<LocalDate> findDatesByRecurringExpenseId(
+        @Param("recurringExpenseId") Long recurringExpenseId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Search index rows: (id, user id, title, description)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.id, e.user.id, e.title, e.description FROM Expense e")
+    Stream<Object[]> streamSearchRows();
+
+    @Query("SELECT e.id, e.user.id, e.title, e.description FROM Expense e WHERE e.id IN :ids")
+    List<Object[]> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Forward-only read; callers must consume it inside a transaction and close it. Date bounds as above
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId " +
+           "AND (:category IS NULL OR e.category = :category) " +
+           "AND e.date >= :startDate AND e.date <= :endDate " +
+           "ORDER BY e.date DESC, e.id DESC")
+    Stream<ExpenseResponse> streamByUserId(
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Delta sync keyset over (change_version, id): rows written after the given position, oldest first
+    @Query("SELECT new org.example.expensetracker.dto.ExpenseChange(" +
+           "e.id, e.title, e.amount, e.date, e.category, e.description, e.changeVersion) FROM Expense e " +
+           "WHERE e.user.id = :userId " +
+           "AND (e.changeVersion > :version OR (e.changeVersion = :version AND e.id > :id)) " +
+           "ORDER BY e.changeVersion, e.id")
+    List<ExpenseChange> findChangesByUserId(
+        @Param("userId") Long userId,
+        @Param("version") long version,
+        @Param("id") long id,
+        Pageable pageable
     );
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package org.example.expensetracker.repository;
+
+import org.example.expensetracker.model.ExpenseTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+
+    // Same (change_version, id) keyset as ExpenseRepository.findChangesByUserId
+    @Query("SELECT t FROM ExpenseTombstone t WHERE t.user.id = :userId " +
+           "AND (t.changeVersion > :version OR (t.changeVersion = :version AND t.expenseId > :id)) " +
+           "ORDER BY t.changeVersion, t.expenseId")
+    List<ExpenseTombstone> findChangesByUserId(
+        @Param("userId") Long userId,
+        @Param("version") long version,
+        @Param("id") long id,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,37 @@
+package org.example.expensetracker.repository;
+
+import org.example.expensetracker.model.MonthlySpending;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlySpendingRepository extends JpaRepository<MonthlySpending, Long> {
+    List<MonthlySpending> findByUserIdAndMonthBetweenAndExpenseCountGreaterThanOrderByMonthAscCategoryAsc(
+        Long userId,
+        LocalDate from,
+        LocalDate to,
+        long expenseCount
+    );
+
+    // Adds a delta in the database rather than writing back a total read earlier; 0 when the row is missing
+    @Modifying
+    @Query(value = "UPDATE monthly_spending SET total = total + :total, expense_count = expense_count + :count " +
+                   "WHERE user_id = :userId AND category = :category AND spending_month = :month",
+           nativeQuery = true)
+    int addToMonth(
+        @Param("userId") Long userId,
+        @Param("category") String category,
+        @Param("month") LocalDate month,
+        @Param("total") BigDecimal total,
+        @Param("count") long count
+    );
+
+    @Modifying
+    @Query("DELETE FROM MonthlySpending m WHERE m.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,10 @@
+package org.example.expensetracker.repository;
+
+public interface MonthlyTotal {
+    String getCategory();
+    Integer getYear();
+    Integer getMonth();
+    // Minor units (cents)
+    Long getTotalCents();
+    Long getCount();
+}
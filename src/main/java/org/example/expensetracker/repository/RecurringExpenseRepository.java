@@ -0,0 +1,32 @@
+package org.example.expensetracker.repository;
+
+import org.example.expensetracker.dto.RecurringExpenseResponse;
+import org.example.expensetracker.model.RecurringExpense;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+    Optional<RecurringExpense> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT new org.example.expensetracker.dto.RecurringExpenseResponse(" +
+           "r.id, r.title, r.amount, r.category, r.description, r.cadence, r.startDate, r.endDate, r.nextDueDate) " +
+           "FROM RecurringExpense r WHERE r.user.id = :userId ORDER BY r.id")
+    List<RecurringExpenseResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    // Keyset over (next_due_date, id) for definitions due by :today, positioned after the last one read
+    @Query("SELECT r FROM RecurringExpense r WHERE r.nextDueDate <= :today " +
+           "AND (r.nextDueDate > :afterDate OR (r.nextDueDate = :afterDate AND r.id > :afterId)) " +
+           "ORDER BY r.nextDueDate, r.id")
+    List<RecurringExpense> findDue(
+        @Param("today") LocalDate today,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+}
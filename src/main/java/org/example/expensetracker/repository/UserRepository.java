@@ -1,9 +1,53 @@
 package org.example.expensetracker.repository;
 
+import org.example.expensetracker.dto.CollectionVersion;
+import jakarta.persistence.LockModeType;
 import org.example.expensetracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    // Blocks the user's expense writers (they bump the version on this row) until the caller commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> findLockedById(@Param("userId") Long userId);
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT new org.example.expensetracker.dto.CollectionVersion(u.id, u.expensesVersion, u.expensesModifiedAt) " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<CollectionVersion> findExpensesVersion(@Param("userId") Long userId);
+
+    @Query("SELECT new org.example.expensetracker.dto.CollectionVersion(u.id, u.budgetsVersion, u.budgetsModifiedAt) " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<CollectionVersion> findBudgetsVersion(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.expensesVersion = u.expensesVersion + 1, u.expensesModifiedAt = :now WHERE u.id = :userId")
+    int bumpExpensesVersion(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.budgetsVersion = u.budgetsVersion + 1, u.budgetsModifiedAt = :now WHERE u.id = :userId")
+    int bumpBudgetsVersion(@Param("userId") Long userId, @Param("now") Instant now);
+
+    // Replaces the hash only if it is still the one the caller read, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :userId AND u.password = :currentPassword")
+    int updatePassword(
+        @Param("userId") Long userId,
+        @Param("currentPassword") String currentPassword,
+        @Param("password") String password
+    );
+}
@@ -0,0 +1,57 @@
+package org.example.expensetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.example.expensetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache of username to {@link AuthenticatedUser}, so authenticated requests
+ * resolve their principal without a {@link UserRepository} round-trip. Unknown usernames are not cached.
+ */
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.security.principal-cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private Cache<String, AuthenticatedUser> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Same tag keys Boot puts on the Spring Cache meters; Prometheus drops a meter whose keys differ
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals", "cache.manager", "principal", "name", "principals");
+    }
+
+    public AuthenticatedUser get(String username) {
+        return cache.get(username, key -> userRepository.findByUsername(key)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.expensetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket and in-flight cap per client key (a user id or an IP address), held in a bounded Caffeine
+ * map. A bucket that has been idle long enough to refill completely is evicted, since a new one starts full.
+ * In-flight counts live in a separate map that only holds clients with a request in progress, so evicting
+ * an idle bucket during a long request does not reset its client's count.
+ * <p>
+ * Each bucket is a single timestamp updated by compare-and-set, the time at which it will be full again
+ * (the generic cell rate algorithm): taking a token pushes it one refill period later, and a token is only
+ * granted while it stays within {@code capacity} periods of now. There is no refill thread and no lock, and
+ * a client whose bucket is empty is turned away with a plain read.
+ */
+public class RateLimiter {
+    private final long refillNanos;
+    private final long burstNanos;
+    private final int maxConcurrent;
+    private final Cache<String, Client> clients;
+    // Requests in progress per key; an entry is removed when its count drops back to zero
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+
+    public RateLimiter(int capacity, Duration refillPeriod, int maxConcurrent, long maximumClients) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero() || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Rate limit capacity, refill period and concurrency must be positive");
+        }
+        this.refillNanos = refillPeriod.toNanos();
+        this.burstNanos = Math.multiplyExact(refillNanos, (long) capacity);
+        this.maxConcurrent = maxConcurrent;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    public Client client(String key) {
+        return clients.get(key, k -> new Client(k, System.nanoTime()));
+    }
+
+    public long trackedClients() {
+        return clients.estimatedSize();
+    }
+
+    public int inFlight(String key) {
+        return inFlight.getOrDefault(key, 0);
+    }
+
+    public final class Client {
+        private final String key;
+        private final AtomicLong fullAt;
+
+        private Client(String key, long now) {
+            this.key = key;
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * Takes one token.
+         *
+         * @return 0 when the token was granted, otherwise the nanoseconds until one is available
+         */
+        public long tryAcquire() {
+            long now = System.nanoTime();
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + refillNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        // Counts a request in flight unless the client is already at the cap; pair with exit()
+        public boolean tryEnter() {
+            if (inFlight.merge(key, 1, Integer::sum) > maxConcurrent) {
+                exit();
+                return false;
+            }
+            return true;
+        }
+
+        public void exit() {
+            inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
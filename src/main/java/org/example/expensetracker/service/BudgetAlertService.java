@@ -0,0 +1,296 @@
+package org.example.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.expensetracker.dto.BudgetAlertResponse;
+import org.example.expensetracker.model.Budget;
+import org.example.expensetracker.model.BudgetAlert;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.BudgetAlertRepository;
+import org.example.expensetracker.repository.BudgetRepository;
+import org.example.expensetracker.repository.CategoryTotal;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raises budget threshold alerts off the write path. Committed expense changes are coalesced per
+ * (user, category) into a bounded pending map; a single background thread drains it on a fixed delay,
+ * applies the deltas to running per-budget totals and records thresholds crossed for the first time.
+ * <p>
+ * A budget's running total is seeded from the aggregate query while holding the user's row lock, which
+ * expense writers also take when they bump the expenses version. Deltas at or below the seeded version are
+ * already in the seed and are skipped, so none is counted twice or missed. When the pending map or one
+ * key's deltas outgrow their bounds, the affected keys fall back to a reseed instead of queueing more.
+ * Running totals are kept for the {@code app.alerts.max-tracked-budgets} most recently used budgets; an
+ * evicted budget is reseeded the next time one of its expenses changes.
+ */
+@Service
+public class BudgetAlertService {
+    private static final Logger logger = LoggerFactory.getLogger(BudgetAlertService.class);
+    private static final int MAX_DELTAS_PER_KEY = 1_000;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetAlertRepository budgetAlertRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int[] thresholds;
+    private final Duration flushInterval;
+    private final int maxPendingKeys;
+    private final ConcurrentHashMap<AlertKey, Pending> pending = new ConcurrentHashMap<>();
+    // Only touched by the consumer thread; access-ordered, so the least recently used budget goes first
+    private final Map<Long, Tracked> tracked;
+    private final ScheduledExecutorService consumer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "budget-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BudgetAlertService(@Value("${app.alerts.thresholds:80,100}") int[] thresholds,
+                              @Value("${app.alerts.flush-interval:500ms}") Duration flushInterval,
+                              @Value("${app.alerts.max-pending-keys:10000}") int maxPendingKeys,
+                              @Value("${app.alerts.max-tracked-budgets:10000}") int maxTrackedBudgets) {
+        this.thresholds = thresholds;
+        this.flushInterval = flushInterval;
+        this.maxPendingKeys = maxPendingKeys;
+        this.tracked = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tracked> eldest) {
+                return size() > maxTrackedBudgets;
+            }
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        consumer.scheduleWithFixedDelay(this::drain, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        consumer.shutdown();
+    }
+
+    public List<BudgetAlertResponse> getAlerts(Long userId) {
+        return budgetAlertRepository.findResponsesByUserId(userId);
+    }
+
+    // Runs on the committing thread: only folds the change into the pending map
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Map<String, Map<LocalDate, Long>> byCategory = new HashMap<>();
+        for (ExpenseChangedEvent.Delta delta : event.deltas()) {
+            if (delta.category() != null && delta.date() != null && delta.cents() != 0) {
+                byCategory.computeIfAbsent(delta.category(), category -> new HashMap<>())
+                        .merge(delta.date(), delta.cents(), Long::sum);
+            }
+        }
+        byCategory.forEach((category, days) -> pending.compute(new AlertKey(event.userId(), category),
+                (key, keyPending) -> pendingFor(keyPending).add(event.version(), days)));
+    }
+
+    @TransactionalEventListener
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        for (String category : event.categories()) {
+            pending.compute(new AlertKey(event.userId(), category),
+                    (key, keyPending) -> pendingFor(keyPending).reseed());
+        }
+    }
+
+    private Pending pendingFor(Pending existing) {
+        if (existing != null) {
+            return existing;
+        }
+        Pending created = new Pending();
+        return pending.size() >= maxPendingKeys ? created.reseed() : created;
+    }
+
+    void drain() {
+        for (AlertKey key : List.copyOf(pending.keySet())) {
+            Pending batch = pending.remove(key);
+            if (batch == null) {
+                continue;
+            }
+            try {
+                process(key, batch);
+            } catch (RuntimeException e) {
+                logger.error("Error processing budget alerts for user {} and category {}: ",
+                        key.userId(), key.category(), e);
+                tracked.values().removeIf(t -> t.key.equals(key));
+            }
+        }
+    }
+
+    private void process(AlertKey key, Pending batch) {
+        List<Budget> budgets = budgetRepository.findByUserIdAndCategory(key.userId(), key.category());
+        Set<Long> budgetIds = new HashSet<>();
+        budgets.forEach(budget -> budgetIds.add(budget.getId()));
+        tracked.values().removeIf(t -> t.key.equals(key) && !budgetIds.contains(t.budgetId));
+
+        // Held here, since seeding may evict entries of this key from the tracked map
+        Map<Long, Tracked> current = new HashMap<>();
+        List<Budget> stale = new ArrayList<>();
+        for (Budget budget : budgets) {
+            Tracked running = tracked.get(budget.getId());
+            if (!batch.reseed && matches(running, budget)) {
+                current.put(budget.getId(), running);
+            } else {
+                stale.add(budget);
+            }
+        }
+        if (!stale.isEmpty()) {
+            current.putAll(seed(key, stale));
+        }
+
+        List<BudgetAlert> alerts = new ArrayList<>();
+        for (Budget budget : budgets) {
+            Tracked running = current.get(budget.getId());
+            running.apply(batch);
+            for (int threshold : thresholds) {
+                if (!running.raised.contains(threshold) && running.reached(threshold)) {
+                    alerts.add(new BudgetAlert(null, null, budget, key.category(), threshold,
+                            Money.ofMinor(running.spentCents), budget.getAmount(), Instant.now()));
+                }
+            }
+        }
+        if (alerts.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.getReferenceById(key.userId());
+            for (BudgetAlert alert : alerts) {
+                alert.setUser(user);
+            }
+            budgetAlertRepository.saveAll(alerts);
+        });
+        for (BudgetAlert alert : alerts) {
+            current.get(alert.getBudget().getId()).raised.add(alert.getThreshold());
+            logger.info("Budget alert for user {}: {} reached {}%", key.userId(), key.category(), alert.getThreshold());
+        }
+    }
+
+    private Map<Long, Tracked> seed(AlertKey key, List<Budget> budgets) {
+        Map<Long, Tracked> seeded = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            long version = userRepository.findLockedById(key.userId())
+                    .orElseThrow(() -> new RuntimeException("User not found"))
+                    .getExpensesVersion();
+            for (Budget budget : budgets) {
+                long spent = expenseRepository.sumByUserIdAndCategoryAndDateBetween(
+                                key.userId(), key.category(), budget.getStartDate(), budget.getEndDate())
+                        .map(CategoryTotal::getTotalCents)
+                        .orElse(0L);
+                Set<Integer> raised = new HashSet<>(budgetAlertRepository.findThresholdsByBudgetId(budget.getId()));
+                seeded.put(budget.getId(), new Tracked(key, budget, spent, version, raised));
+            }
+        });
+        tracked.putAll(seeded);
+        return seeded;
+    }
+
+    private static boolean matches(Tracked running, Budget budget) {
+        return running != null
+                && running.amountCents == budget.getAmount().minorUnits()
+                && running.startDate.equals(budget.getStartDate())
+                && running.endDate.equals(budget.getEndDate());
+    }
+
+    private record AlertKey(Long userId, String category) {
+    }
+
+    private record VersionedDay(long version, LocalDate date) {
+    }
+
+    /**
+     * Coalesced deltas for one key, summed per (version, day). Only mutated inside ConcurrentHashMap.compute.
+     */
+    private static final class Pending {
+        final Map<VersionedDay, Long> deltas = new HashMap<>();
+        boolean reseed;
+
+        Pending add(long version, Map<LocalDate, Long> days) {
+            if (!reseed) {
+                days.forEach((date, cents) -> deltas.merge(new VersionedDay(version, date), cents, Long::sum));
+                if (deltas.size() > MAX_DELTAS_PER_KEY) {
+                    reseed();
+                }
+            }
+            return this;
+        }
+
+        Pending reseed() {
+            reseed = true;
+            deltas.clear();
+            return this;
+        }
+    }
+
+    private static final class Tracked {
+        final AlertKey key;
+        final Long budgetId;
+        final long amountCents;
+        final LocalDate startDate;
+        final LocalDate endDate;
+        final long seededVersion;
+        final Set<Integer> raised;
+        long spentCents;
+
+        Tracked(AlertKey key, Budget budget, long spentCents, long seededVersion, Set<Integer> raised) {
+            this.key = key;
+            this.budgetId = budget.getId();
+            this.amountCents = budget.getAmount().minorUnits();
+            this.startDate = budget.getStartDate();
+            this.endDate = budget.getEndDate();
+            this.spentCents = spentCents;
+            this.seededVersion = seededVersion;
+            this.raised = raised;
+        }
+
+        void apply(Pending batch) {
+            batch.deltas.forEach((day, cents) -> {
+                if (day.version() > seededVersion
+                        && !day.date().isBefore(startDate) && !day.date().isAfter(endDate)) {
+                    spentCents += cents;
+                }
+            });
+        }
+
+        boolean reached(int threshold) {
+            return Math.multiplyExact(spentCents, 100) >= Math.multiplyExact((long) threshold, amountCents);
+        }
+    }
+}
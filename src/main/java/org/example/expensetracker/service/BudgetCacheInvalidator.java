@@ -0,0 +1,76 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.config.CacheConfig;
+import org.example.expensetracker.dto.BudgetResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evicts the budget read caches once a write commits. An expense change only evicts statuses whose
+ * budget has the expense's category and covers its date; a budget change evicts everything of that user
+ * for the affected categories.
+ * <p>
+ * A key that is not cached is still evicted: a read may be loading it from rows this commit replaced,
+ * and evicting waits for that load (see the sync flag on BudgetService's cached reads).
+ */
+@Component
+public class BudgetCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Cache statusCache = cache(CacheConfig.BUDGET_STATUS);
+        Cache statusesCache = cache(CacheConfig.BUDGET_STATUSES);
+        for (ExpenseChangedEvent.Delta delta : event.deltas()) {
+            if (delta.category() == null || delta.date() == null) {
+                continue;
+            }
+            SimpleKey key = new SimpleKey(event.userId(), delta.category());
+            Cache.ValueWrapper cached = statusCache.get(key);
+            if (cached == null || affects((Map<?, ?>) cached.get(), delta)) {
+                statusCache.evict(key);
+            }
+            Cache.ValueWrapper cachedStatuses = statusesCache.get(event.userId());
+            if (cachedStatuses == null
+                    || ((List<?>) cachedStatuses.get()).stream().anyMatch(status -> affects((Map<?, ?>) status, delta))) {
+                statusesCache.evict(event.userId());
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        Cache statusCache = cache(CacheConfig.BUDGET_STATUS);
+        for (String category : event.categories()) {
+            statusCache.evict(new SimpleKey(event.userId(), category));
+        }
+        cache(CacheConfig.BUDGET_STATUSES).evict(event.userId());
+        cache(CacheConfig.USER_BUDGETS).evict(event.userId());
+    }
+
+    private static boolean affects(Map<?, ?> status, ExpenseChangedEvent.Delta delta) {
+        BudgetResponse budget = (BudgetResponse) status.get("budget");
+        LocalDate date = delta.date();
+        return delta.category().equals(budget.category())
+                && (budget.startDate() == null || !date.isBefore(budget.startDate()))
+                && (budget.endDate() == null || !date.isAfter(budget.endDate()));
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.expensetracker.service;
+
+import java.util.Set;
+
+/**
+ * Published by BudgetService when a budget is created, changed or deleted; delivered after commit.
+ *
+ * @param categories the budget's category, plus its previous one when an update moved it
+ */
+public record BudgetChangedEvent(Long userId, Set<String> categories) {
+}
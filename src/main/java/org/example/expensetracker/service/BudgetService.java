@@ -1,19 +1,33 @@
 package org.example.expensetracker.service;
 
+import org.example.expensetracker.config.CacheConfig;
+import org.example.expensetracker.dto.BudgetResponse;
+import org.example.expensetracker.dto.ExpenseResponse;
 import org.example.expensetracker.model.Budget;
-import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.repository.BudgetAlertRepository;
 import org.example.expensetracker.repository.BudgetRepository;
+import org.example.expensetracker.repository.BudgetTotal;
+import org.example.expensetracker.repository.CategoryTotal;
 import org.example.expensetracker.repository.ExpenseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BudgetService {
@@ -25,16 +39,26 @@ public class BudgetService {
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private BudgetAlertRepository budgetAlertRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Budget createBudget(Budget budget) {
         try {
-            logger.info("Creating budget: {}", budget);
+            logger.debug("Creating budget: {}", budget);
             
             // Validate budget
             if (budget.getUser() == null || budget.getUser().getId() == null) {
                 throw new IllegalArgumentException("User ID is required");
             }
             
-            if (budget.getAmount() == null || budget.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            if (budget.getAmount() == null || !budget.getAmount().isPositive()) {
                 throw new IllegalArgumentException("Budget amount must be greater than 0");
             }
             
@@ -48,7 +72,10 @@ public class BudgetService {
 
             // Save the budget
             Budget savedBudget = budgetRepository.save(budget);
-            logger.info("Budget created successfully with ID: {}", savedBudget.getId());
+            dataVersionService.budgetsChanged(savedBudget.getUser().getId());
+            eventPublisher.publishEvent(new BudgetChangedEvent(savedBudget.getUser().getId(),
+                    Set.of(savedBudget.getCategory())));
+            logger.debug("Budget created successfully with ID: {}", savedBudget.getId());
             return savedBudget;
         } catch (Exception e) {
             logger.error("Error creating budget: ", e);
@@ -56,27 +83,51 @@ public class BudgetService {
         }
     }
 
-    public List<Budget> getUserBudgets(Long userId) {
-        return budgetRepository.findByUserId(userId);
+    // Cached reads are evicted after commit by BudgetCacheInvalidator; sync makes an eviction wait for an
+    // in-flight load, so a load that read pre-commit rows is dropped rather than left behind
+    @Cacheable(cacheNames = CacheConfig.USER_BUDGETS, sync = true)
+    public List<BudgetResponse> getUserBudgets(Long userId) {
+        return budgetRepository.findResponsesByUserId(userId);
     }
 
+    @Transactional
     public Budget updateBudget(Long id, Budget budget) {
         Budget existingBudget = budgetRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Budget not found"));
-        
+        String oldCategory = existingBudget.getCategory();
+        // Alerts are raised once per threshold; re-arm them when what they were measured against changes
+        if (!Objects.equals(existingBudget.getAmount(), budget.getAmount())
+                || !Objects.equals(oldCategory, budget.getCategory())
+                || !Objects.equals(existingBudget.getStartDate(), budget.getStartDate())
+                || !Objects.equals(existingBudget.getEndDate(), budget.getEndDate())) {
+            budgetAlertRepository.deleteByBudgetIdIn(List.of(id));
+        }
+
         existingBudget.setAmount(budget.getAmount());
         existingBudget.setCategory(budget.getCategory());
         existingBudget.setStartDate(budget.getStartDate());
         existingBudget.setEndDate(budget.getEndDate());
         existingBudget.setDescription(budget.getDescription());
         
-        return budgetRepository.save(existingBudget);
+        Budget savedBudget = budgetRepository.save(existingBudget);
+        dataVersionService.budgetsChanged(savedBudget.getUser().getId());
+        eventPublisher.publishEvent(new BudgetChangedEvent(savedBudget.getUser().getId(),
+                Stream.of(oldCategory, savedBudget.getCategory()).collect(Collectors.toSet())));
+        return savedBudget;
     }
 
+    @Transactional
     public void deleteBudget(Long id) {
-        budgetRepository.deleteById(id);
+        budgetRepository.findById(id).ifPresent(budget -> {
+            budgetAlertRepository.deleteByBudgetIdIn(List.of(id));
+            budgetRepository.delete(budget);
+            dataVersionService.budgetsChanged(budget.getUser().getId());
+            eventPublisher.publishEvent(new BudgetChangedEvent(budget.getUser().getId(), Set.of(budget.getCategory())));
+        });
     }
 
+    // Aggregates only: the cache holds one small map per (user, category), whatever the budget covers
+    @Cacheable(cacheNames = CacheConfig.BUDGET_STATUS, sync = true)
     public Map<String, Object> getBudgetStatus(Long userId, String category) {
         Budget budget = budgetRepository.findByUserIdAndCategory(userId, category)
             .stream()
@@ -86,22 +137,52 @@ public class BudgetService {
         LocalDate startDate = budget.getStartDate();
         LocalDate endDate = budget.getEndDate();
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndCategoryAndDateBetween(
+        // Sum and count in the database instead of hydrating every matching expense
+        Optional<CategoryTotal> total = expenseRepository.sumByUserIdAndCategoryAndDateBetween(
             userId, category, startDate, endDate);
+        Money totalSpent = Money.ofMinor(total.map(CategoryTotal::getTotalCents).orElse(0L));
+        long expenseCount = total.map(CategoryTotal::getCount).orElse(0L);
+
+        return buildStatus(BudgetResponse.from(budget), totalSpent, expenseCount);
+    }
+
+    // Not cached: the list grows with the user's data and would dominate the status cache
+    public List<ExpenseResponse> getBudgetExpenses(Long userId, BudgetResponse budget) {
+        return expenseRepository.findResponsesByUserId(
+            userId, budget.category(), budget.startDate(), budget.endDate());
+    }
 
-        BigDecimal totalSpent = expenses.stream()
-            .map(Expense::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Cacheable(cacheNames = CacheConfig.BUDGET_STATUSES, sync = true)
+    public List<Map<String, Object>> getAllBudgetStatuses(Long userId) {
+        List<BudgetResponse> budgets = budgetRepository.findResponsesByUserId(userId);
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
 
-        BigDecimal remaining = budget.getAmount().subtract(totalSpent);
-        double percentageUsed = (totalSpent.doubleValue() / budget.getAmount().doubleValue()) * 100;
+        Map<Long, BudgetTotal> totals = budgetRepository.sumExpensesPerBudget(userId)
+            .stream()
+            .collect(Collectors.toMap(BudgetTotal::getBudgetId, Function.identity()));
+
+        return budgets.stream()
+            .map(budget -> {
+                BudgetTotal total = totals.get(budget.id());
+                return buildStatus(budget,
+                    Money.ofMinor(total != null ? total.getTotalCents() : 0L),
+                    total != null ? total.getCount() : 0L);
+            })
+            .collect(Collectors.toList());
+    }
 
-        return Map.of(
-            "budget", budget,
-            "totalSpent", totalSpent,
-            "remaining", remaining,
-            "percentageUsed", percentageUsed,
-            "expenses", expenses
-        );
+    private Map<String, Object> buildStatus(BudgetResponse budget, Money totalSpent, long expenseCount) {
+        Money remaining = budget.amount().minus(totalSpent);
+        double percentageUsed = totalSpent.percentOf(budget.amount());
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("budget", budget);
+        status.put("totalSpent", totalSpent);
+        status.put("remaining", remaining);
+        status.put("percentageUsed", percentageUsed);
+        status.put("expenseCount", expenseCount);
+        return status;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package org.example.expensetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync watermark: the (change version, expense id) of the last change a client has seen.
+ */
+public record ChangeToken(long version, long id) {
+    public static final ChangeToken START = new ChangeToken(0, 0);
+
+    public String encode() {
+        String raw = version + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ChangeToken(
+                    Long.parseLong(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
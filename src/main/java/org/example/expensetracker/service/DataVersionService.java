@@ -0,0 +1,46 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.dto.CollectionVersion;
+import org.example.expensetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Per-user version counters for the expense and budget collections. Writers bump them inside their own
+ * transaction; the collection endpoints compare them with If-None-Match / If-Modified-Since before querying.
+ */
+@Service
+public class DataVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Bumps the counter and returns the new value. The update holds the user's row lock until commit,
+     * so concurrent writers for one user get consecutive versions and commit in version order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long expensesChanged(Long userId) {
+        userRepository.bumpExpensesVersion(userId, Instant.now());
+        return getExpensesVersion(userId).version();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void budgetsChanged(Long userId) {
+        userRepository.bumpBudgetsVersion(userId, Instant.now());
+    }
+
+    public CollectionVersion getExpensesVersion(Long userId) {
+        return userRepository.findExpensesVersion(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public CollectionVersion getBudgetsVersion(Long userId) {
+        return userRepository.findBudgetsVersion(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
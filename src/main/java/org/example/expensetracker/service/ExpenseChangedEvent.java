@@ -0,0 +1,38 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by ExpenseService inside each write transaction and delivered to listeners after commit.
+ * An update carries two deltas for the same expense: the old values negated and the new values.
+ *
+ * @param version the user's expenses version written by this change (see DataVersionService)
+ */
+public record ExpenseChangedEvent(Long userId, long version, List<Delta> deltas) {
+
+    public List<Long> expenseIds() {
+        return deltas.stream().map(Delta::expenseId).distinct().toList();
+    }
+
+    /**
+     * Signed amount one expense adds to (or removes from) its category on its date.
+     */
+    public record Delta(Long expenseId, String category, LocalDate date, long cents) {
+
+        static Delta added(Expense expense) {
+            return new Delta(expense.getId(), expense.getCategory(), expense.getDate(), cents(expense.getAmount()));
+        }
+
+        static Delta removed(Long expenseId, String category, LocalDate date, Money amount) {
+            return new Delta(expenseId, category, date, -cents(amount));
+        }
+
+        private static long cents(Money amount) {
+            return amount != null ? amount.minorUnits() : 0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.dto.ExpenseResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position over expenses ordered by (date desc, id desc).
+ */
+public record ExpenseCursor(LocalDate date, Long id) {
+
+    public static ExpenseCursor of(ExpenseResponse expense) {
+        return new ExpenseCursor(expense.date(), expense.id());
+    }
+
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ExpenseCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.expensetracker.service;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.example.expensetracker.dto.BudgetResponse;
+import org.example.expensetracker.dto.ExpenseResponse;
+import org.example.expensetracker.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Writes a user's expenses as CSV or XLSX straight from the forward-only expense stream, so an export
+ * holds one row at a time (CSV) or one row window (XLSX) regardless of its size.
+ */
+@Service
+public class ExpenseExportService {
+    private static final String[] EXPENSE_HEADER = {"id", "title", "amount", "date", "category", "description"};
+    private static final String[] BUDGET_HEADER = {"category", "startDate", "endDate", "amount", "totalSpent",
+            "remaining", "percentageUsed", "expenseCount"};
+    // Last row index of an .xlsx sheet; longer exports continue on another sheet
+    private static final int MAX_SHEET_ROW = 1_048_575;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    // Rows kept in memory per sheet before SXSSF flushes them to its temp file
+    @Value("${app.export.xlsx-row-window:100}")
+    private int xlsxRowWindow;
+
+    // Same columns as the CSV import, so an export can be imported again; the import reads quoted line breaks back
+    public void writeCsv(Long userId, LocalDate from, LocalDate to, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(String.join(",", EXPENSE_HEADER));
+        writer.write("\r\n");
+        try {
+            expenseService.streamExpenses(userId, null, from, to, expense -> {
+                try {
+                    writer.write(String.valueOf(expense.id()));
+                    writer.write(',');
+                    writer.write(csvField(expense.title()));
+                    writer.write(',');
+                    writer.write(expense.amount() != null ? expense.amount().toBigDecimal().toPlainString() : "");
+                    writer.write(',');
+                    writer.write(expense.date() != null ? expense.date().toString() : "");
+                    writer.write(',');
+                    writer.write(csvField(expense.category()));
+                    writer.write(',');
+                    writer.write(csvField(expense.description()));
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Expenses sheet(s) followed by a Budgets sheet with the status of every budget of the user.
+     */
+    public void writeXlsx(Long userId, LocalDate from, LocalDate to, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxRowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            CellStyle amountStyle = workbook.createCellStyle();
+            amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            ExpenseSheets sheets = new ExpenseSheets(workbook, dateStyle, amountStyle);
+            expenseService.streamExpenses(userId, null, from, to, sheets::append);
+
+            Sheet budgets = workbook.createSheet("Budgets");
+            header(budgets, BUDGET_HEADER);
+            int rowIndex = 1;
+            for (Map<String, Object> status : budgetService.getAllBudgetStatuses(userId)) {
+                BudgetResponse budget = (BudgetResponse) status.get("budget");
+                Row row = budgets.createRow(rowIndex++);
+                row.createCell(0).setCellValue(budget.category());
+                dateCell(row, 1, budget.startDate(), dateStyle);
+                dateCell(row, 2, budget.endDate(), dateStyle);
+                amountCell(row, 3, budget.amount(), amountStyle);
+                amountCell(row, 4, (Money) status.get("totalSpent"), amountStyle);
+                amountCell(row, 5, (Money) status.get("remaining"), amountStyle);
+                row.createCell(6).setCellValue((Double) status.get("percentageUsed"));
+                row.createCell(7).setCellValue((Long) status.get("expenseCount"));
+            }
+
+            workbook.write(outputStream);
+        } finally {
+            // Deletes the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static final class ExpenseSheets {
+        private final SXSSFWorkbook workbook;
+        private final CellStyle dateStyle;
+        private final CellStyle amountStyle;
+        private Sheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+
+        ExpenseSheets(SXSSFWorkbook workbook, CellStyle dateStyle, CellStyle amountStyle) {
+            this.workbook = workbook;
+            this.dateStyle = dateStyle;
+            this.amountStyle = amountStyle;
+            nextSheet();
+        }
+
+        void append(ExpenseResponse expense) {
+            if (rowIndex > MAX_SHEET_ROW) {
+                nextSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(expense.id());
+            if (expense.title() != null) {
+                row.createCell(1).setCellValue(expense.title());
+            }
+            amountCell(row, 2, expense.amount(), amountStyle);
+            dateCell(row, 3, expense.date(), dateStyle);
+            if (expense.category() != null) {
+                row.createCell(4).setCellValue(expense.category());
+            }
+            if (expense.description() != null) {
+                row.createCell(5).setCellValue(expense.description());
+            }
+        }
+
+        private void nextSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? "Expenses" : "Expenses " + sheetCount);
+            header(sheet, EXPENSE_HEADER);
+            rowIndex = 1;
+        }
+    }
+
+    private static void header(Sheet sheet, String[] columns) {
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < columns.length; i++) {
+            row.createCell(i).setCellValue(columns[i]);
+        }
+    }
+
+    private static void amountCell(Row row, int column, Money amount, CellStyle style) {
+        if (amount != null) {
+            row.createCell(column).setCellValue(amount.toBigDecimal().doubleValue());
+            row.getCell(column).setCellStyle(style);
+        }
+    }
+
+    private static void dateCell(Row row, int column, LocalDate date, CellStyle style) {
+        if (date != null) {
+            row.createCell(column).setCellValue(date);
+            row.getCell(column).setCellStyle(style);
+        }
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,300 @@
+package org.example.expensetracker.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams expenses from a JSON array or a CSV body and inserts them in fixed-size batches.
+ * Only the current batch is held in memory; invalid rows are reported and skipped.
+ * <p>
+ * The import is not all-or-nothing: each batch commits on its own. If the body stops parsing partway
+ * through, the rows read so far are still saved and the report ends with a {@code fatal} error entry and
+ * {@code complete: false}, so a client knows how much went in instead of retrying the whole body.
+ */
+@Service
+public class ExpenseImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseImportService.class);
+    // Longest CSV record accepted, so an unclosed quote cannot pull the rest of the body into memory
+    private static final int MAX_CSV_RECORD_LENGTH = 64 * 1024;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public Map<String, Object> importJson(Long userId, InputStream body) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of expenses");
+            }
+            long row = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new IllegalArgumentException("JSON array of expenses is not closed");
+                    }
+                    row++;
+                    if (token != JsonToken.START_OBJECT) {
+                        // A stray value or nested array is one bad row, not the end of the import
+                        run.reject(row, "Expected an expense object but found " + parser.getText());
+                        parser.skipChildren();
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(parser);
+                    try {
+                        run.accept(row, objectMapper.treeToValue(node, Expense.class));
+                    } catch (IOException | RuntimeException e) {
+                        run.reject(row, e.getMessage());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                run.abort(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    public Map<String, Object> importCsv(Long userId, InputStream body) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("CSV body is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> header = parseCsvLine(headerLine);
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            if (!columns.containsKey("amount") || !columns.containsKey("date")) {
+                throw new IllegalArgumentException("CSV header must contain at least 'amount' and 'date'");
+            }
+
+            long row = 0;
+            try {
+                String record;
+                while ((record = readCsvRecord(reader)) != null) {
+                    row++;
+                    if (record.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        List<String> fields = parseCsvLine(record);
+                        Expense expense = new Expense();
+                        expense.setTitle(field(fields, columns, "title"));
+                        expense.setCategory(field(fields, columns, "category"));
+                        expense.setDescription(field(fields, columns, "description"));
+                        String amount = field(fields, columns, "amount");
+                        expense.setAmount(amount != null ? Money.of(new BigDecimal(amount)) : null);
+                        String date = field(fields, columns, "date");
+                        expense.setDate(date != null ? LocalDate.parse(date) : null);
+                        run.accept(row, expense);
+                    } catch (RuntimeException e) {
+                        run.reject(row, e.getMessage());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                run.abort(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    // One CSV record: a quoted field may hold line breaks, so lines are joined until its quotes balance
+    private String readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder(line);
+        boolean quoted = isQuoteOpen(line, false);
+        while (quoted) {
+            String next = reader.readLine();
+            if (next == null) {
+                // parseCsvLine reports the unterminated field as a bad row
+                break;
+            }
+            if (record.length() + next.length() > MAX_CSV_RECORD_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Quoted field is not closed within " + MAX_CSV_RECORD_LENGTH + " characters");
+            }
+            record.append('\n').append(next);
+            quoted = isQuoteOpen(next, true);
+        }
+        return record.toString();
+    }
+
+    // Doubled quotes inside a quoted field flip the state twice, so counting quotes is enough
+    private static boolean isQuoteOpen(String line, boolean quoted) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 quoting; a line break inside a quoted field comes back as \n
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private class ImportRun {
+        private final User user;
+        private final List<Expense> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        private boolean aborted;
+
+        ImportRun(Long userId) {
+            user = new User();
+            user.setId(userId);
+        }
+
+        void accept(long row, Expense expense) {
+            expense.setId(null);
+            expense.setUser(user);
+            try {
+                expenseService.validateExpense(expense);
+            } catch (IllegalArgumentException e) {
+                reject(row, e.getMessage());
+                return;
+            }
+            batch.add(expense);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", row);
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+
+        // The body stopped parsing after `row`; always reported, even past the error cap
+        void abort(long row, String message) {
+            aborted = true;
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("row", row);
+            error.put("message", "Import stopped: " + message);
+            error.put("fatal", true);
+            errors.add(error);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            save(0, batch.size());
+            batch.clear();
+            batchRows.clear();
+        }
+
+        // Saves batch[from, to); a failed range is split in halves, so only the failing rows are rejected
+        private void save(int from, int to) {
+            List<Expense> expenses = batch.subList(from, to);
+            try {
+                expenseService.saveBatch(expenses);
+                imported += expenses.size();
+            } catch (RuntimeException e) {
+                // The rolled-back insert left sequence ids on the entities
+                expenses.forEach(expense -> expense.setId(null));
+                if (expenses.size() == 1) {
+                    logger.warn("Error importing expense row {}: {}", batchRows.get(from), e.getMessage());
+                    reject(batchRows.get(from), "Insert failed: " + e.getMessage());
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                save(from, middle);
+                save(middle, to);
+            }
+        }
+
+        Map<String, Object> finish() {
+            flush();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("imported", imported);
+            result.put("failed", failed);
+            result.put("errors", errors);
+            result.put("errorsTruncated", failed > errors.size() - (aborted ? 1 : 0));
+            result.put("complete", !aborted);
+            return result;
+        }
+    }
+}
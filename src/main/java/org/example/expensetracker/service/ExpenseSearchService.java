@@ -0,0 +1,293 @@
+package org.example.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.example.expensetracker.dto.ExpenseResponse;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Lucene index over expense titles and descriptions. It is built from the expense table at startup
+ * and kept current by committed {@link ExpenseChangedEvent}s: each event re-reads its expenses and replaces
+ * or deletes their documents. Searches go through a near-real-time {@link SearcherManager}, so a change is
+ * searchable once indexed, without an index commit.
+ * <p>
+ * A rebuild holds the write side of {@code indexLock} and event updates the read side, so an update either
+ * lands before the rebuild reads the table or re-reads its rows after the rebuild is done.
+ */
+@Service
+public class ExpenseSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseSearchService.class);
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, DESCRIPTION, 1f);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Deepest hit a page may reach; ranking needs the top (page + 1) * size hits in memory
+    @Value("${app.search.max-window:10000}")
+    private int maxWindow;
+
+    // Also bounds the delete terms buffered by updates, which a large bulk import produces one per row
+    @Value("${app.search.ram-buffer-mb:16}")
+    private double ramBufferMb;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private volatile Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+
+    // Runs before the web server accepts requests
+    @PostConstruct
+    void open() throws IOException {
+        openWriter();
+        searcherManager = new SearcherManager(writer, null);
+        rebuild();
+    }
+
+    private void openWriter() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(ramBufferMb));
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Replaces the whole index with the current contents of the expense table.
+     */
+    public void rebuild() {
+        indexLock.writeLock().lock();
+        try {
+            indexTable();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void indexTable() throws IOException {
+        long start = System.nanoTime();
+        writer.deleteAll();
+        long count = transactionTemplate.execute(status -> {
+            long indexed = 0;
+            try (Stream<Object[]> rows = expenseRepository.streamSearchRows()) {
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.addDocument(document(iterator.next()));
+                    indexed++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return indexed;
+        });
+        logger.info("Indexed {} expenses for search in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Rows are read after commit, so the index follows the table even when events for one expense race
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        List<Long> ids = event.expenseIds();
+        indexLock.readLock().lock();
+        try {
+            Map<Long, Object[]> rows = expenseRepository.findSearchRowsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+            for (Long id : ids) {
+                Object[] row = rows.get(id);
+                if (row != null) {
+                    writer.updateDocument(idTerm(id), document(row));
+                } else {
+                    writer.deleteDocuments(idTerm(id));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error indexing expenses {} for search: ", ids, e);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        if (!writer.isOpen()) {
+            reopen();
+        }
+    }
+
+    /**
+     * A tragic error, such as running out of memory while flushing, closes the writer for good. Rebuilds
+     * the index with a new writer; searches keep the last view of the old one until the new one is complete.
+     */
+    private void reopen() {
+        indexLock.writeLock().lock();
+        try {
+            if (writer.isOpen()) {
+                return;
+            }
+            logger.warn("Search index writer closed, rebuilding the index: {}",
+                    String.valueOf(writer.getTragicException()));
+            openWriter();
+            SearcherManager rebuiltManager = new SearcherManager(writer, null);
+            indexTable();
+            rebuiltManager.maybeRefreshBlocking();
+            SearcherManager closedManager = searcherManager;
+            searcherManager = rebuiltManager;
+            closedManager.close();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error reopening the search index: ", e);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked page of the user's expenses whose title or description matches {@code text}. Terms are
+     * required by default; the simple query syntax also accepts quotes, {@code |}, {@code -} and {@code *}.
+     */
+    public Map<String, Object> search(Long userId, String text, Integer page, Integer size) throws IOException {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        int pageSize = size == null ? ExpenseService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, ExpenseService.MAX_PAGE_SIZE));
+        int pageIndex = page == null ? 0 : page;
+        if (pageIndex < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        long window = ((long) pageIndex + 1) * pageSize;
+        if (window > maxWindow) {
+            throw new IllegalArgumentException("Only the first " + maxWindow + " hits can be paged through");
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = new BooleanQuery.Builder()
+                .add(parser.parse(text), BooleanClause.Occur.MUST)
+                .add(LongPoint.newExactQuery(USER_ID, userId), BooleanClause.Occur.FILTER)
+                .build();
+
+        // Skipped while a rebuild runs, so searches keep the last complete view instead of a partial one
+        SearcherManager manager = searcherManager;
+        if (indexLock.readLock().tryLock()) {
+            try {
+                manager.maybeRefresh();
+            } catch (AlreadyClosedException e) {
+                // The writer failed; the next change reopens it
+                logger.debug("Search index writer closed, searching the last refreshed view");
+            } finally {
+                indexLock.readLock().unlock();
+            }
+        }
+
+        IndexSearcher searcher;
+        try {
+            searcher = manager.acquire();
+        } catch (AlreadyClosedException e) {
+            // Replaced by a reopen since it was read
+            manager = searcherManager;
+            searcher = manager.acquire();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        TopDocs top;
+        try {
+            top = searcher.search(query, (int) window);
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = pageIndex * pageSize; i < top.scoreDocs.length; i++) {
+                ids.add(Long.parseLong(storedFields.document(top.scoreDocs[i].doc).get(ID)));
+            }
+        } finally {
+            manager.release(searcher);
+        }
+
+        // Load the page in rank order; an id deleted since the searcher was opened is left out
+        Map<Long, ExpenseResponse> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            expenseRepository.findResponsesByIdInAndUserId(ids, userId)
+                    .forEach(expense -> byId.put(expense.id(), expense));
+        }
+        List<ExpenseResponse> items = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", items);
+        result.put("page", pageIndex);
+        result.put("size", pageSize);
+        result.put("totalHits", top.totalHits.value);
+        result.put("totalHitsExact", top.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+        result.put("hasMore", top.totalHits.value > window);
+        return result;
+    }
+
+    private static Document document(Object[] row) {
+        Document document = new Document();
+        document.add(new StringField(ID, row[0].toString(), Field.Store.YES));
+        document.add(new LongPoint(USER_ID, (Long) row[1]));
+        if (row[2] != null) {
+            document.add(new TextField(TITLE, (String) row[2], Field.Store.NO));
+        }
+        if (row[3] != null) {
+            document.add(new TextField(DESCRIPTION, (String) row[3], Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, id.toString());
+    }
+}
@@ -1,60 +1,78 @@
 package org.example.expensetracker.service;
 
+import org.example.expensetracker.dto.ExpenseChange;
+import org.example.expensetracker.dto.ExpenseResponse;
 import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.ExpenseTombstone;
+import org.example.expensetracker.model.Money;
 import org.example.expensetracker.model.User;
 import org.example.expensetracker.repository.ExpenseRepository;
-import org.example.expensetracker.repository.UserRepository;
+import org.example.expensetracker.repository.ExpenseTombstoneRepository;
+import org.example.expensetracker.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
     private static final Logger logger = LoggerFactory.getLogger(ExpenseService.class);
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
 
     @Autowired
     private ExpenseRepository expenseRepository;
     @Autowired
-    private UserRepository userRepository;
+    private ExpenseTombstoneRepository expenseTombstoneRepository;
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+    @Autowired
+    private DataVersionService dataVersionService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public List<Expense> getAllExpenses() {
-        User user = getCurrentUser();
-        System.out.println("Current user: " + user.getUsername());
-        return expenseRepository.findByUser(user);
+    public List<ExpenseResponse> getAllExpenses() {
+        return expenseRepository.findResponsesByUserId(getCurrentUserId(), null, null, null);
     }
 
-    public Optional<Expense> getExpenseById(Long id) {
-        User user = getCurrentUser();
-        return expenseRepository.findById(id)
-                .filter(expense -> expense.getUser().getId().equals(user.getId()));
+    public Optional<ExpenseResponse> getExpenseById(Long id) {
+        return expenseRepository.findResponseByIdAndUserId(id, getCurrentUserId());
     }
 
+    @Transactional
     public Expense createExpense(Expense expense) {
         try {
-            logger.info("Creating expense: {}", expense);
-            
-            // Validate expense
-            if (expense.getUser() == null || expense.getUser().getId() == null) {
-                throw new IllegalArgumentException("User ID is required");
-            }
-            
-            if (expense.getAmount() == null || expense.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Expense amount must be greater than 0");
-            }
+            logger.debug("Creating expense: {}", expense);
             
-            if (expense.getDate() == null) {
-                throw new IllegalArgumentException("Date is required");
-            }
+            validateExpense(expense);
+            expense.setChangeVersion(dataVersionService.expensesChanged(expense.getUser().getId()));
 
             // Save the expense
             Expense savedExpense = expenseRepository.save(expense);
-            logger.info("Expense created successfully with ID: {}", savedExpense.getId());
+            spendingRollupService.onCreated(savedExpense);
+            eventPublisher.publishEvent(new ExpenseChangedEvent(savedExpense.getUser().getId(),
+                    savedExpense.getChangeVersion(), List.of(ExpenseChangedEvent.Delta.added(savedExpense))));
+            logger.debug("Expense created successfully with ID: {}", savedExpense.getId());
             return savedExpense;
         } catch (Exception e) {
             logger.error("Error creating expense: ", e);
@@ -62,44 +80,193 @@ public class ExpenseService {
         }
     }
 
+    public void validateExpense(Expense expense) {
+        if (expense.getUser() == null || expense.getUser().getId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+
+        if (expense.getAmount() == null || !expense.getAmount().isPositive()) {
+            throw new IllegalArgumentException("Expense amount must be greater than 0");
+        }
+
+        if (expense.getDate() == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+    }
+
+    /**
+     * Inserts already validated expenses in one transaction. Rows go out as JDBC batches and the
+     * persistence context is cleared afterwards so repeated calls do not accumulate entities.
+     */
+    @Transactional
+    public void saveBatch(List<Expense> expenses) {
+        // One version bump per user covers the whole batch
+        Map<Long, Long> versions = new HashMap<>();
+        for (Expense expense : expenses) {
+            Long userId = expense.getUser().getId();
+            expense.setChangeVersion(versions.computeIfAbsent(userId, dataVersionService::expensesChanged));
+            expense.setUser(entityManager.getReference(User.class, userId));
+            entityManager.persist(expense);
+        }
+        spendingRollupService.onBatchCreated(expenses);
+        Map<Long, List<ExpenseChangedEvent.Delta>> deltas = new HashMap<>();
+        for (Expense expense : expenses) {
+            deltas.computeIfAbsent(expense.getUser().getId(), userId -> new ArrayList<>())
+                    .add(ExpenseChangedEvent.Delta.added(expense));
+        }
+        deltas.forEach((userId, userDeltas) ->
+                eventPublisher.publishEvent(new ExpenseChangedEvent(userId, versions.get(userId), userDeltas)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Transactional
     public Expense updateExpense(Long id, Expense expense) {
         Expense existingExpense = expenseRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Expense not found"));
-        
+        String oldCategory = existingExpense.getCategory();
+        LocalDate oldDate = existingExpense.getDate();
+        Money oldAmount = existingExpense.getAmount();
+
         existingExpense.setTitle(expense.getTitle());
         existingExpense.setAmount(expense.getAmount());
         existingExpense.setDate(expense.getDate());
         existingExpense.setCategory(expense.getCategory());
         existingExpense.setDescription(expense.getDescription());
-        
-        return expenseRepository.save(existingExpense);
+        existingExpense.setChangeVersion(dataVersionService.expensesChanged(existingExpense.getUser().getId()));
+
+        Expense savedExpense = expenseRepository.save(existingExpense);
+        spendingRollupService.onUpdated(savedExpense.getUser().getId(), oldCategory, oldDate, oldAmount, savedExpense);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(savedExpense.getUser().getId(),
+                savedExpense.getChangeVersion(), List.of(
+                        ExpenseChangedEvent.Delta.removed(id, oldCategory, oldDate, oldAmount),
+                        ExpenseChangedEvent.Delta.added(savedExpense))));
+        return savedExpense;
     }
 
+    @Transactional
     public void deleteExpense(Long id) {
-        expenseRepository.deleteById(id);
-    }
-
-    public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
-    public List<Expense> filterExpenses(String category, String startDate, String endDate) {
-        User user = getCurrentUser();
-        if (category != null && startDate != null && endDate != null) {
-            return expenseRepository.findByUserAndCategoryAndDateBetween(
-                    user, category, LocalDate.parse(startDate), LocalDate.parse(endDate));
-        } else if (category != null) {
-            return expenseRepository.findByUserAndCategory(user, category);
-        } else if (startDate != null && endDate != null) {
-            return expenseRepository.findByUserAndDateBetween(
-                    user, LocalDate.parse(startDate), LocalDate.parse(endDate));
-        } else {
-            return expenseRepository.findByUser(user);
+        expenseRepository.findById(id).ifPresent(expense -> {
+            long version = dataVersionService.expensesChanged(expense.getUser().getId());
+            expenseRepository.delete(expense);
+            expenseTombstoneRepository.save(
+                    new ExpenseTombstone(expense.getId(), expense.getUser(), version, Instant.now()));
+            spendingRollupService.onDeleted(expense);
+            eventPublisher.publishEvent(new ExpenseChangedEvent(expense.getUser().getId(), version, List.of(
+                    ExpenseChangedEvent.Delta.removed(id, expense.getCategory(), expense.getDate(), expense.getAmount()))));
+        });
+    }
+
+    public Long getCurrentUserId() {
+        return ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
+
+
+    public List<ExpenseResponse> filterExpenses(String category, String startDate, String endDate) {
+        return expenseRepository.findResponsesByUserId(
+                getCurrentUserId(), category, parseDate(startDate), parseDate(endDate));
+    }
+
+    public List<ExpenseResponse> getUserExpenses(Long userId) {
+        return expenseRepository.findResponsesByUserId(userId, null, null, null);
+    }
+
+    public Map<String, Object> getExpensePage(String category, String startDate, String endDate,
+                                              String cursor, Integer limit) {
+        Long userId = getCurrentUserId();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ExpenseCursor after = cursor != null ? ExpenseCursor.decode(cursor) : null;
+
+        // Nothing after the cursor's date can be on this page, so the index range ends there
+        LocalDate end = orMax(parseDate(endDate));
+        if (after != null && after.date().isBefore(end)) {
+            end = after.date();
         }
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<ExpenseResponse> rows = expenseRepository.findPageByUserId(
+                userId, category, orMin(parseDate(startDate)), end,
+                after != null ? after.date() : null, after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", hasMore ? ExpenseCursor.of(items.get(items.size() - 1)).encode() : null);
+        return page;
+    }
+
+    /**
+     * Delta sync: expenses written and deleted after the client's token, in (change version, id) order.
+     * Both sources are read with the same keyset and merged, so a page never skips a change.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getChanges(Long userId, String since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ChangeToken after = since != null ? ChangeToken.decode(since) : ChangeToken.START;
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<ExpenseChange> changed = expenseRepository.findChangesByUserId(
+                userId, after.version(), after.id(), window);
+        List<ExpenseTombstone> deleted = expenseTombstoneRepository.findChangesByUserId(
+                userId, after.version(), after.id(), window);
+
+        List<ExpenseResponse> changedItems = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        ChangeToken last = after;
+        int i = 0;
+        int j = 0;
+        while (changedItems.size() + deletedIds.size() < pageSize && (i < changed.size() || j < deleted.size())) {
+            ExpenseChange change = i < changed.size() ? changed.get(i) : null;
+            ExpenseTombstone tombstone = j < deleted.size() ? deleted.get(j) : null;
+            if (tombstone == null || (change != null && (change.changeVersion() < tombstone.getChangeVersion()
+                    || (change.changeVersion() == tombstone.getChangeVersion() && change.id() < tombstone.getExpenseId())))) {
+                changedItems.add(change.response());
+                last = new ChangeToken(change.changeVersion(), change.id());
+                i++;
+            } else {
+                deletedIds.add(tombstone.getExpenseId());
+                last = new ChangeToken(tombstone.getChangeVersion(), tombstone.getExpenseId());
+                j++;
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("changed", changedItems);
+        result.put("deleted", deletedIds);
+        result.put("nextToken", last.encode());
+        result.put("hasMore", i < changed.size() || j < deleted.size());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public void streamExpenses(Long userId, String category, String startDate, String endDate,
+                               Consumer<ExpenseResponse> sink) {
+        streamExpenses(userId, category, parseDate(startDate), parseDate(endDate), sink);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamExpenses(Long userId, String category, LocalDate startDate, LocalDate endDate,
+                               Consumer<ExpenseResponse> sink) {
+        // Rows are DTOs, not managed entities, so the persistence context stays empty while streaming
+        try (Stream<ExpenseResponse> expenses = expenseRepository.streamByUserId(
+                userId, category, orMin(startDate), orMax(endDate))) {
+            expenses.forEach(sink);
+        }
+    }
+
+    private LocalDate parseDate(String date) {
+        return date != null ? LocalDate.parse(date) : null;
+    }
+
+    // Open date bounds for the queries that take their range unconditionally
+    private static LocalDate orMin(LocalDate date) {
+        return date != null ? date : MIN_DATE;
     }
 
-    public List<Expense> getUserExpenses(Long userId) {
-        return expenseRepository.findByUserId(userId);
+    private static LocalDate orMax(LocalDate date) {
+        return date != null ? date : MAX_DATE;
     }
-}
\ No newline at end of file
+}
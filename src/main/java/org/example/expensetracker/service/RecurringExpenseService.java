@@ -0,0 +1,341 @@
+package org.example.expensetracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.OptimisticLockException;
+import org.example.expensetracker.dto.RecurringExpenseResponse;
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.RecurringExpense;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.RecurringExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recurring expense definitions and the background job that turns their due occurrences into expenses.
+ * <p>
+ * The job walks due definitions in keyset chunks of {@code app.recurring.chunk-size}. Each chunk is one
+ * transaction: the occurrences go through {@link ExpenseService#saveBatch} and the definitions' next due
+ * dates advance with them, so a restart resumes exactly where the last committed chunk stopped. The
+ * (recurring_expense_id, date) unique key backs this up. Definitions carry a version, so a user edit
+ * committed while a chunk runs makes the chunk fail instead of being overwritten by it. A failed chunk,
+ * usually on that version or the unique key, is retried one definition at a time from fresh rows, skipping
+ * dates that already have an expense.
+ */
+@Service
+public class RecurringExpenseService {
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseService.class);
+    // Occurrences one definition may catch up on per transaction; a definition still due after that is
+    // caught up by further transactions before the job moves past its chunk
+    private static final int MAX_OCCURRENCES_PER_CHUNK = 400;
+    // Attempts per definition when its row keeps changing underneath the job
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recurring.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recurring.run-interval:1h}")
+    private Duration runInterval;
+
+    @Value("${app.recurring.chunk-size:500}")
+    private int chunkSize;
+
+    private Counter materialized;
+    private Counter failed;
+    private Timer chunkTimer;
+    private Timer runTimer;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recurring-expenses");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        materialized = Counter.builder("recurring.expenses.materialized")
+                .description("Expenses created from recurring definitions")
+                .register(meterRegistry);
+        failed = Counter.builder("recurring.expenses.failed")
+                .description("Recurring definitions that could not be materialized")
+                .register(meterRegistry);
+        chunkTimer = Timer.builder("recurring.expenses.chunk")
+                .description("Time to materialize one chunk of due definitions")
+                .register(meterRegistry);
+        runTimer = Timer.builder("recurring.expenses.run")
+                .description("Time to materialize everything due")
+                .register(meterRegistry);
+    }
+
+    // First run right after startup, so occurrences missed while the app was down are caught up
+    @EventListener(ApplicationReadyEvent.class)
+    public void startScheduler() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runSafely, 0, runInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Transactional
+    public RecurringExpense create(RecurringExpense recurring) {
+        validate(recurring);
+        recurring.setId(null);
+        recurring.setOccurrences(0);
+        recurring.setNextDueDate(recurring.getStartDate());
+        return recurringExpenseRepository.save(recurring);
+    }
+
+    public List<RecurringExpenseResponse> getUserRecurringExpenses(Long userId) {
+        return recurringExpenseRepository.findResponsesByUserId(userId);
+    }
+
+    @Transactional
+    public RecurringExpense update(Long id, Long userId, RecurringExpense recurring) {
+        RecurringExpense existing = recurringExpenseRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new RuntimeException("Recurring expense not found"));
+        recurring.setUser(existing.getUser());
+        validate(recurring);
+
+        // A new schedule starts counting again; dates that already have an expense are skipped
+        if (existing.getCadence() != recurring.getCadence()
+                || !Objects.equals(existing.getStartDate(), recurring.getStartDate())) {
+            existing.setOccurrences(0);
+            existing.setNextDueDate(recurring.getStartDate());
+        }
+        existing.setTitle(recurring.getTitle());
+        existing.setAmount(recurring.getAmount());
+        existing.setCategory(recurring.getCategory());
+        existing.setDescription(recurring.getDescription());
+        existing.setCadence(recurring.getCadence());
+        existing.setStartDate(recurring.getStartDate());
+        existing.setEndDate(recurring.getEndDate());
+        if (existing.getNextDueDate() == null || isPastEnd(existing, existing.getNextDueDate())) {
+            existing.setNextDueDate(nextDueDate(existing));
+        }
+        return recurringExpenseRepository.save(existing);
+    }
+
+    // Expenses already created from the definition stay; their link is cleared by the foreign key
+    @Transactional
+    public void delete(Long id, Long userId) {
+        recurringExpenseRepository.findByIdAndUserId(id, userId).ifPresent(recurringExpenseRepository::delete);
+    }
+
+    private void validate(RecurringExpense recurring) {
+        if (recurring.getUser() == null || recurring.getUser().getId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (recurring.getAmount() == null || !recurring.getAmount().isPositive()) {
+            throw new IllegalArgumentException("Recurring expense amount must be greater than 0");
+        }
+        if (recurring.getCadence() == null) {
+            throw new IllegalArgumentException("Cadence is required");
+        }
+        if (recurring.getStartDate() == null) {
+            throw new IllegalArgumentException("Start date is required");
+        }
+        if (recurring.getEndDate() != null && recurring.getEndDate().isBefore(recurring.getStartDate())) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+    }
+
+    private void runSafely() {
+        try {
+            materializeDue(LocalDate.now());
+        } catch (RuntimeException e) {
+            logger.error("Error materializing recurring expenses: ", e);
+        }
+    }
+
+    /**
+     * Creates every occurrence due on or before {@code today}. Memory stays bounded by one chunk: the
+     * persistence context is cleared after each one.
+     *
+     * @return the number of expenses created
+     */
+    public long materializeDue(LocalDate today) {
+        return runTimer.record(() -> {
+            long created = 0;
+            LocalDate afterDate = LocalDate.of(1, 1, 1);
+            Long afterId = 0L;
+            while (true) {
+                List<RecurringExpense> chunk = recurringExpenseRepository.findDue(
+                        today, afterDate, afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                RecurringExpense last = chunk.get(chunk.size() - 1);
+                afterDate = last.getNextDueDate();
+                afterId = last.getId();
+                List<Long> ids = chunk.stream().map(RecurringExpense::getId).toList();
+                // A capped definition's new next due date can sort before the keyset position, so the
+                // next page would never see it; repeat it here until it is past today
+                while (!ids.isEmpty()) {
+                    List<Long> current = ids;
+                    List<Long> behind = new ArrayList<>();
+                    created += chunkTimer.record(() -> materializeChunk(current, today, behind));
+                    ids = behind;
+                }
+            }
+            if (created > 0) {
+                logger.info("Materialized {} recurring expenses due by {}", created, today);
+            }
+            return created;
+        });
+    }
+
+    // Adds the ids of definitions that hit the cap and are still due to `behind`, once committed
+    private long materializeChunk(List<Long> ids, LocalDate today, List<Long> behind) {
+        try {
+            List<Long> capped = new ArrayList<>();
+            long created = transactionTemplate.execute(status -> {
+                List<Expense> expenses = new ArrayList<>();
+                for (RecurringExpense recurring : recurringExpenseRepository.findAllById(ids)) {
+                    expenses.addAll(occurrences(recurring, today, Set.of()));
+                    if (isDue(recurring, today)) {
+                        capped.add(recurring.getId());
+                    }
+                }
+                if (!expenses.isEmpty()) {
+                    // Flushes the advanced definitions along with the new expenses
+                    expenseService.saveBatch(expenses);
+                }
+                return (long) expenses.size();
+            });
+            materialized.increment(created);
+            behind.addAll(capped);
+            return created;
+        } catch (RuntimeException e) {
+            // A concurrent edit (version or unique key); isolates whichever definition is at fault
+            logger.warn("Error materializing a chunk of recurring expenses, retrying {} definitions one by one: {}",
+                    ids.size(), e.getMessage());
+            long created = 0;
+            for (Long id : ids) {
+                created += materializeOne(id, today, behind);
+            }
+            return created;
+        }
+    }
+
+    private long materializeOne(Long id, LocalDate today, List<Long> behind) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return materializeOneAttempt(id, today, behind);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    failed.increment();
+                    logger.error("Recurring expense {} kept changing, giving up until the next run: {}",
+                            id, e.getMessage());
+                    return 0;
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.error("Error materializing recurring expense {}: ", id, e);
+                return 0;
+            }
+        }
+    }
+
+    private long materializeOneAttempt(Long id, LocalDate today, List<Long> behind) {
+        List<Long> capped = new ArrayList<>();
+        long created = transactionTemplate.execute(status -> recurringExpenseRepository.findById(id)
+                .map(recurring -> {
+                    LocalDate from = recurring.getNextDueDate();
+                    Set<LocalDate> existing = from == null ? Set.of() : new HashSet<>(
+                            expenseRepository.findDatesByRecurringExpenseId(id, from, today));
+                    List<Expense> expenses = occurrences(recurring, today, existing);
+                    if (!expenses.isEmpty()) {
+                        expenseService.saveBatch(expenses);
+                    } else {
+                        recurringExpenseRepository.save(recurring);
+                    }
+                    if (isDue(recurring, today)) {
+                        capped.add(id);
+                    }
+                    return (long) expenses.size();
+                })
+                .orElse(0L));
+        materialized.increment(created);
+        behind.addAll(capped);
+        return created;
+    }
+
+    // Advances the definition past today (or past its end) and returns the occurrences to insert
+    private List<Expense> occurrences(RecurringExpense recurring, LocalDate today, Set<LocalDate> skip) {
+        List<Expense> expenses = new ArrayList<>();
+        User user = recurring.getUser();
+        LocalDate due = recurring.getNextDueDate();
+        while (due != null && !due.isAfter(today) && expenses.size() < MAX_OCCURRENCES_PER_CHUNK) {
+            if (!skip.contains(due)) {
+                Expense expense = new Expense();
+                expense.setTitle(recurring.getTitle());
+                expense.setAmount(recurring.getAmount());
+                expense.setDate(due);
+                expense.setCategory(recurring.getCategory());
+                expense.setDescription(recurring.getDescription());
+                expense.setRecurringExpenseId(recurring.getId());
+                expense.setUser(user);
+                expenses.add(expense);
+            }
+            recurring.setOccurrences(recurring.getOccurrences() + 1);
+            due = nextDueDate(recurring);
+            recurring.setNextDueDate(due);
+        }
+        return expenses;
+    }
+
+    private LocalDate nextDueDate(RecurringExpense recurring) {
+        LocalDate due = recurring.getCadence().occurrence(recurring.getStartDate(), recurring.getOccurrences());
+        return isPastEnd(recurring, due) ? null : due;
+    }
+
+    private static boolean isDue(RecurringExpense recurring, LocalDate today) {
+        return recurring.getNextDueDate() != null && !recurring.getNextDueDate().isAfter(today);
+    }
+
+    private static boolean isPastEnd(RecurringExpense recurring, LocalDate date) {
+        return recurring.getEndDate() != null && date.isAfter(recurring.getEndDate());
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.expensetracker.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Columnar, allocation-light aggregation over one user's expenses. Amounts are long cents, dates are
+ * epoch days and categories/titles are dictionary-encoded ints, so the scan only touches primitive arrays.
+ * Large inputs are split across a fork-join pool; each leaf fills its own dense accumulators and the
+ * partial results are summed on join.
+ */
+public final class SpendingAggregator {
+    private static final int MIN_LEAF_SIZE = 16_384;
+
+    private SpendingAggregator() {
+    }
+
+    public static Totals aggregate(Columns columns, ForkJoinPool pool) {
+        int size = columns.size();
+        if (size == 0) {
+            return new Totals(columns, new Partial(columns));
+        }
+        int leafSize = Math.max(MIN_LEAF_SIZE, size / pool.getParallelism() + 1);
+        Partial partial = size <= leafSize
+                ? scan(columns, 0, size)
+                : pool.invoke(new ScanTask(columns, 0, size, leafSize));
+        return new Totals(columns, partial);
+    }
+
+    private static Partial scan(Columns columns, int from, int to) {
+        Partial partial = new Partial(columns);
+        int[] days = columns.epochDays;
+        long[] cents = columns.cents;
+        int[] categories = columns.categoryIds;
+        int[] titles = columns.titleIds;
+        int minDay = columns.minDay;
+        for (int i = from; i < to; i++) {
+            long amount = cents[i];
+            partial.total += amount;
+            partial.byCategory[categories[i]] += amount;
+            partial.byDay[days[i] - minDay] += amount;
+            partial.byTitle[titles[i]] += amount;
+            partial.titleCounts[titles[i]]++;
+        }
+        partial.count = to - from;
+        return partial;
+    }
+
+    private static final class ScanTask extends RecursiveTask<Partial> {
+        private final Columns columns;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        ScanTask(Columns columns, int from, int to, int leafSize) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= leafSize) {
+                return scan(columns, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(columns, from, mid, leafSize);
+            left.fork();
+            Partial right = new ScanTask(columns, mid, to, leafSize).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class Partial {
+        final long[] byCategory;
+        final long[] byDay;
+        final long[] byTitle;
+        final int[] titleCounts;
+        long total;
+        int count;
+
+        Partial(Columns columns) {
+            byCategory = new long[columns.categoryCount()];
+            byDay = new long[columns.dayCount()];
+            byTitle = new long[columns.titleCount()];
+            titleCounts = new int[columns.titleCount()];
+        }
+
+        Partial merge(Partial other) {
+            add(byCategory, other.byCategory);
+            add(byDay, other.byDay);
+            add(byTitle, other.byTitle);
+            for (int i = 0; i < titleCounts.length; i++) {
+                titleCounts[i] += other.titleCounts[i];
+            }
+            total += other.total;
+            count += other.count;
+            return this;
+        }
+
+        private static void add(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    /**
+     * Aggregation result; arrays are indexed by the dictionary ids / day offsets of the source columns.
+     */
+    public static final class Totals {
+        private final Columns columns;
+        private final Partial partial;
+
+        private Totals(Columns columns, Partial partial) {
+            this.columns = columns;
+            this.partial = partial;
+        }
+
+        public long totalCents() {
+            return partial.total;
+        }
+
+        public int count() {
+            return partial.count;
+        }
+
+        public long[] centsByCategory() {
+            return partial.byCategory;
+        }
+
+        public long[] centsByDay() {
+            return partial.byDay;
+        }
+
+        public long[] centsByTitle() {
+            return partial.byTitle;
+        }
+
+        public int[] countsByTitle() {
+            return partial.titleCounts;
+        }
+
+        public Columns columns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Growable column store. Days outside [minDay, maxDay] are rejected so the per-day accumulator stays dense.
+     */
+    public static final class Columns {
+        private final int minDay;
+        private final int maxDay;
+        private int[] epochDays = new int[1024];
+        private long[] cents = new long[1024];
+        private int[] categoryIds = new int[1024];
+        private int[] titleIds = new int[1024];
+        private int size;
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+        private final Map<String, Integer> titleIndex = new HashMap<>();
+        private String[] categoryNames = new String[16];
+        private String[] titleNames = new String[256];
+
+        public Columns(int minDay, int maxDay) {
+            if (maxDay < minDay) {
+                throw new IllegalArgumentException("Start date must be before end date");
+            }
+            this.minDay = minDay;
+            this.maxDay = maxDay;
+        }
+
+        public void add(int epochDay, long amountCents, String category, String title) {
+            if (epochDay < minDay || epochDay > maxDay) {
+                throw new IllegalArgumentException("Day " + epochDay + " outside of aggregation range");
+            }
+            if (size == cents.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                titleIds = Arrays.copyOf(titleIds, capacity);
+            }
+            epochDays[size] = epochDay;
+            cents[size] = amountCents;
+            categoryIds[size] = categoryId(category);
+            titleIds[size] = titleId(title);
+            size++;
+        }
+
+        private int categoryId(String category) {
+            Integer id = categoryIndex.get(category);
+            if (id == null) {
+                id = categoryIndex.size();
+                categoryIndex.put(category, id);
+                if (id == categoryNames.length) {
+                    categoryNames = Arrays.copyOf(categoryNames, id * 2);
+                }
+                categoryNames[id] = category;
+            }
+            return id;
+        }
+
+        private int titleId(String title) {
+            Integer id = titleIndex.get(title);
+            if (id == null) {
+                id = titleIndex.size();
+                titleIndex.put(title, id);
+                if (id == titleNames.length) {
+                    titleNames = Arrays.copyOf(titleNames, id * 2);
+                }
+                titleNames[id] = title;
+            }
+            return id;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int minDay() {
+            return minDay;
+        }
+
+        public int dayCount() {
+            return maxDay - minDay + 1;
+        }
+
+        public int categoryCount() {
+            return categoryIndex.size();
+        }
+
+        public int titleCount() {
+            return titleIndex.size();
+        }
+
+        public String categoryName(int id) {
+            return categoryNames[id];
+        }
+
+        public String titleName(int id) {
+            return titleNames[id];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.expensetracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.MonthlySpending;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Server-side spending analytics over arbitrary date ranges, computed by {@link SpendingAggregator}.
+ */
+@Service
+public class SpendingAnalyticsService {
+    private static final String UNTITLED = "(untitled)";
+    private static final Set<String> GROUP_BY = Set.of("day", "week", "month");
+    // Keeps epoch days well inside int range for the aggregator's columns
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private final ForkJoinPool pool;
+    private final Period maxSpan;
+
+    public SpendingAnalyticsService(@Value("${app.analytics.parallelism:0}") int parallelism,
+                                    @Value("${app.analytics.max-span:5y}") Period maxSpan) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxSpan = maxSpan;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAnalytics(Long userId, String startDate, String endDate,
+                                            String groupBy, int top, int window) {
+        LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+        LocalDate start = startDate != null ? LocalDate.parse(startDate) : end.minusYears(1).plusDays(1);
+        String period = groupBy != null ? groupBy : "month";
+        if (top < 1 || window < 1) {
+            throw new IllegalArgumentException("top and window must be at least 1");
+        }
+        if (!GROUP_BY.contains(period)) {
+            throw new IllegalArgumentException("groupBy must be one of day, week, month");
+        }
+        if (start.isBefore(MIN_DATE) || end.isAfter(MAX_DATE)) {
+            throw new IllegalArgumentException("Dates must be between " + MIN_DATE + " and " + MAX_DATE);
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        // Every day in the range gets a slot in the per-day arrays and the rolling average
+        if (!end.isBefore(start.plus(maxSpan))) {
+            throw new IllegalArgumentException("Date range must be shorter than " + maxSpan);
+        }
+
+        SpendingAggregator.Columns columns =
+                new SpendingAggregator.Columns((int) start.toEpochDay(), (int) end.toEpochDay());
+        try (Stream<Object[]> rows = expenseRepository.streamAnalyticsRows(userId, start, end)) {
+            rows.forEach(row -> columns.add(
+                    (int) ((LocalDate) row[0]).toEpochDay(),
+                    ((Number) row[1]).longValue(),
+                    row[2] != null ? (String) row[2] : MonthlySpending.UNCATEGORIZED,
+                    row[3] != null ? ((String) row[3]).trim().toLowerCase(Locale.ROOT) : UNTITLED));
+        }
+        SpendingAggregator.Totals totals = SpendingAggregator.aggregate(columns, pool);
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("startDate", start);
+        analytics.put("endDate", end);
+        analytics.put("totalSpent", money(totals.totalCents()));
+        analytics.put("expenseCount", totals.count());
+        analytics.put("byCategory", byCategory(totals));
+        analytics.put("byPeriod", byPeriod(totals, start, period));
+        analytics.put("topMerchants", topMerchants(totals, top));
+        analytics.put("rollingAverage", rollingAverage(totals, start, window));
+        return analytics;
+    }
+
+    private List<Map<String, Object>> byCategory(SpendingAggregator.Totals totals) {
+        long[] cents = totals.centsByCategory();
+        return IntStream.range(0, cents.length).boxed()
+                .sorted(Comparator.comparingLong((Integer id) -> cents[id]).reversed())
+                .map(id -> entry("category", totals.columns().categoryName(id), "total", money(cents[id])))
+                .toList();
+    }
+
+    private List<Map<String, Object>> byPeriod(SpendingAggregator.Totals totals, LocalDate start, String groupBy) {
+        long[] daily = totals.centsByDay();
+        Map<LocalDate, Long> periods = new LinkedHashMap<>();
+        for (int offset = 0; offset < daily.length; offset++) {
+            if (daily[offset] == 0) {
+                continue;
+            }
+            LocalDate day = start.plusDays(offset);
+            LocalDate period = switch (groupBy) {
+                case "day" -> day;
+                case "week" -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case "month" -> day.withDayOfMonth(1);
+                default -> throw new IllegalArgumentException("groupBy must be one of day, week, month");
+            };
+            periods.merge(period, daily[offset], Long::sum);
+        }
+        List<Map<String, Object>> result = new ArrayList<>(periods.size());
+        periods.forEach((period, cents) -> result.add(entry("period", period, "total", money(cents))));
+        return result;
+    }
+
+    private List<Map<String, Object>> topMerchants(SpendingAggregator.Totals totals, int top) {
+        long[] cents = totals.centsByTitle();
+        int[] counts = totals.countsByTitle();
+        return IntStream.range(0, cents.length).boxed()
+                .sorted(Comparator.comparingLong((Integer id) -> cents[id]).reversed())
+                .limit(top)
+                .map(id -> {
+                    Map<String, Object> merchant = entry("title", totals.columns().titleName(id), "total", money(cents[id]));
+                    merchant.put("count", counts[id]);
+                    return merchant;
+                })
+                .toList();
+    }
+
+    // Trailing average of daily spend over the last `window` days (days before the range count as zero)
+    private List<Map<String, Object>> rollingAverage(SpendingAggregator.Totals totals, LocalDate start, int window) {
+        long[] daily = totals.centsByDay();
+        List<Map<String, Object>> result = new ArrayList<>(daily.length);
+        long sum = 0;
+        for (int offset = 0; offset < daily.length; offset++) {
+            sum += daily[offset];
+            if (offset >= window) {
+                sum -= daily[offset - window];
+            }
+            result.add(entry("date", start.plusDays(offset), "average", money(Math.round((double) sum / window))));
+        }
+        return result;
+    }
+
+    private static Map<String, Object> entry(String keyName, Object key, String valueName, Object value) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put(keyName, key);
+        entry.put(valueName, value);
+        return entry;
+    }
+
+    private static Money money(long cents) {
+        return Money.ofMinor(cents);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.MonthlySpending;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.MonthlySpendingRepository;
+import org.example.expensetracker.repository.MonthlyTotal;
+import org.example.expensetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the monthly_spending rollup. Writes are applied as deltas inside the caller's transaction,
+ * so the rollup commits or rolls back together with the expense change that caused it.
+ * <p>
+ * Each delta is one {@code UPDATE ... SET total = total + ?}, so concurrent writers never overwrite each
+ * other's totals. A month without a row yet gets an insert. Expense writers hold the user's row lock from
+ * their version bump, and a rebuild takes the same lock, so two transactions cannot both insert the same
+ * month; the (user, category, month) unique key rejects it if one ever tried.
+ */
+@Service
+public class SpendingRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(SpendingRollupService.class);
+
+    @Autowired
+    private MonthlySpendingRepository monthlySpendingRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCreated(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCategory(), expense.getDate(), expense.getAmount(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUpdated(Long userId, String oldCategory, LocalDate oldDate, Money oldAmount, Expense updated) {
+        apply(userId, oldCategory, oldDate, negate(oldAmount), -1);
+        apply(userId, updated.getCategory(), updated.getDate(), updated.getAmount(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDeleted(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCategory(), expense.getDate(), negate(expense.getAmount()), -1);
+    }
+
+    // Collapses the batch to one delta per (user, category, month) before touching the table
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBatchCreated(List<Expense> expenses) {
+        Map<RollupKey, long[]> deltas = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getDate() == null) {
+                continue;
+            }
+            RollupKey key = new RollupKey(expense.getUser().getId(), categoryOf(expense.getCategory()),
+                    monthOf(expense.getDate()));
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] = Math.addExact(delta[0], amountOf(expense.getAmount()).minorUnits());
+            delta[1]++;
+        }
+        deltas.forEach((key, delta) ->
+                add(key.userId(), key.category(), key.month(), Money.ofMinor(delta[0]), delta[1]));
+    }
+
+    public List<MonthlySpending> getMonthlySummary(Long userId, String from, String to) {
+        LocalDate start = from != null ? YearMonth.parse(from).atDay(1) : LocalDate.of(1, 1, 1);
+        LocalDate end = to != null ? YearMonth.parse(to).atDay(1) : LocalDate.of(9999, 12, 1);
+        return monthlySpendingRepository
+                .findByUserIdAndMonthBetweenAndExpenseCountGreaterThanOrderByMonthAscCategoryAsc(userId, start, end, 0);
+    }
+
+    /**
+     * Recomputes one user's rollup from the expense table with a single grouped query.
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        // Waits for in-flight expense writes of this user, which hold the same lock until they commit
+        userRepository.findLockedById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+        monthlySpendingRepository.deleteByUserId(userId);
+
+        Map<RollupKey, MonthlySpending> rows = new HashMap<>();
+        for (MonthlyTotal total : expenseRepository.sumByUserIdPerCategoryAndMonth(userId)) {
+            RollupKey key = new RollupKey(userId, categoryOf(total.getCategory()),
+                    LocalDate.of(total.getYear(), total.getMonth(), 1));
+            MonthlySpending row = rows.computeIfAbsent(key,
+                    k -> new MonthlySpending(null, userRef(userId), k.category(), k.month(), Money.ZERO, 0));
+            row.setTotal(row.getTotal().plus(Money.ofMinor(total.getTotalCents())));
+            row.setExpenseCount(row.getExpenseCount() + total.getCount());
+        }
+        monthlySpendingRepository.saveAll(rows.values());
+    }
+
+    // Backfill job: one transaction per user so a failure only affects that user's rollup
+    public void rebuildAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        logger.info("Rebuilding monthly spending rollup for {} users", userIds.size());
+        for (Long userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+            } catch (Exception e) {
+                logger.error("Error rebuilding monthly spending for user {}: ", userId, e);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    private void apply(Long userId, String category, LocalDate date, Money amount, long count) {
+        if (date == null) {
+            return;
+        }
+        add(userId, categoryOf(category), monthOf(date), amountOf(amount), count);
+    }
+
+    private void add(Long userId, String category, LocalDate month, Money amount, long count) {
+        if (monthlySpendingRepository.addToMonth(userId, category, month, amount.toBigDecimal(), count) == 0) {
+            monthlySpendingRepository.save(new MonthlySpending(null, userRef(userId), category, month, amount, count));
+        }
+    }
+
+    private User userRef(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    private static String categoryOf(String category) {
+        return category != null ? category : MonthlySpending.UNCATEGORIZED;
+    }
+
+    private static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static Money amountOf(Money amount) {
+        return amount != null ? amount : Money.ZERO;
+    }
+
+    private static Money negate(Money amount) {
+        return amountOf(amount).negate();
+    }
+
+    private record RollupKey(Long userId, String category, LocalDate month) {
+    }
+}
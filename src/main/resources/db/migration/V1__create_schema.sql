@@ -0,0 +1,31 @@
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table expense (
+    id bigint generated by default as identity,
+    title varchar(255),
+    amount numeric(38,2),
+    date date,
+    category varchar(255),
+    description varchar(255),
+    user_id bigint,
+    primary key (id),
+    constraint fk_expense_user foreign key (user_id) references users (id)
+);
+
+create table budget (
+    id bigint generated by default as identity,
+    category varchar(255) not null,
+    amount numeric(38,2) not null,
+    start_date date not null,
+    end_date date not null,
+    description varchar(255),
+    user_id bigint not null,
+    primary key (id),
+    constraint fk_budget_user foreign key (user_id) references users (id)
+);
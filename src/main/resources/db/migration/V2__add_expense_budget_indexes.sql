@@ -0,0 +1,8 @@
+-- Listing, paging and date-range filters: where user_id = ? [and date between ? and ?] order by date
+create index idx_expense_user_date on expense (user_id, date);
+
+-- Category filters and budget status sums: where user_id = ? and category = ? and date between ? and ?
+create index idx_expense_user_category_date on expense (user_id, category, date);
+
+-- Budget lookups by category
+create index idx_budget_user_category on budget (user_id, category);
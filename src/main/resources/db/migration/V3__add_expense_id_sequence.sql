@@ -0,0 +1,2 @@
+-- Expense ids come from a pooled sequence (allocationSize = 50) so inserts can be JDBC-batched
+create sequence expense_seq start with 1 increment by 50;
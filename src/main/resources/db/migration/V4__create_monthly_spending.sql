@@ -0,0 +1,14 @@
+-- Per-user, per-category, per-month spending totals maintained by ExpenseService writes
+create table monthly_spending (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category varchar(255) not null,
+    spending_month date not null,
+    total numeric(38,2) not null,
+    expense_count bigint not null,
+    primary key (id),
+    constraint fk_monthly_spending_user foreign key (user_id) references users (id),
+    constraint uk_monthly_spending_user_category_month unique (user_id, category, spending_month)
+);
+
+create index idx_monthly_spending_user_month on monthly_spending (user_id, spending_month);
@@ -0,0 +1,5 @@
+-- Per-user change counters for conditional GETs on the expense and budget collections
+alter table users add column expenses_version bigint default 0 not null;
+alter table users add column expenses_modified_at timestamp(6) default current_timestamp not null;
+alter table users add column budgets_version bigint default 0 not null;
+alter table users add column budgets_modified_at timestamp(6) default current_timestamp not null;
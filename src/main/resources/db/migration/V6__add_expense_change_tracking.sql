@@ -0,0 +1,16 @@
+-- Delta sync: every expense write stamps the row with the user's bumped expenses_version,
+-- and deletes leave a tombstone carrying the version of the delete
+alter table expense add column change_version bigint default 0 not null;
+
+create index idx_expense_user_change on expense (user_id, change_version, id);
+
+create table expense_tombstone (
+    expense_id bigint not null,
+    user_id bigint not null,
+    change_version bigint not null,
+    deleted_at timestamp(6) not null,
+    primary key (expense_id),
+    constraint fk_expense_tombstone_user foreign key (user_id) references users (id)
+);
+
+create index idx_expense_tombstone_user_change on expense_tombstone (user_id, change_version, expense_id);
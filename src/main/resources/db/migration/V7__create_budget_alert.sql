@@ -0,0 +1,17 @@
+-- Threshold crossings found by BudgetAlertService; one row per budget and threshold
+create table budget_alert (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    budget_id bigint not null,
+    category varchar(255) not null,
+    threshold integer not null,
+    spent numeric(38,2) not null,
+    budget_amount numeric(38,2) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint fk_budget_alert_user foreign key (user_id) references users (id),
+    constraint fk_budget_alert_budget foreign key (budget_id) references budget (id),
+    constraint uk_budget_alert_budget_threshold unique (budget_id, threshold)
+);
+
+create index idx_budget_alert_user_created on budget_alert (user_id, created_at);
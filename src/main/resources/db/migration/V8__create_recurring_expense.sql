@@ -0,0 +1,26 @@
+-- Recurring expense definitions; RecurringExpenseService turns due occurrences into expense rows.
+-- next_due_date is the date of occurrence number `occurrences`, or null once the end date is passed.
+create table recurring_expense (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    title varchar(255),
+    amount numeric(38,2) not null,
+    category varchar(255),
+    description varchar(255),
+    cadence varchar(16) not null,
+    start_date date not null,
+    end_date date,
+    next_due_date date,
+    occurrences bigint default 0 not null,
+    primary key (id),
+    constraint fk_recurring_expense_user foreign key (user_id) references users (id)
+);
+
+create index idx_recurring_expense_due on recurring_expense (next_due_date, id);
+create index idx_recurring_expense_user on recurring_expense (user_id);
+
+-- Materialized occurrences point back at their definition; one expense per definition and date
+alter table expense add column recurring_expense_id bigint;
+alter table expense add constraint fk_expense_recurring_expense
+    foreign key (recurring_expense_id) references recurring_expense (id) on delete set null;
+alter table expense add constraint uk_expense_recurring_date unique (recurring_expense_id, date);
@@ -0,0 +1,2 @@
+-- Optimistic lock: the materialization job and user edits both rewrite a definition's row
+alter table recurring_expense add column version bigint default 0 not null;
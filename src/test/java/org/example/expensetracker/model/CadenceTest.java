@@ -0,0 +1,34 @@
+package org.example.expensetracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CadenceTest {
+
+    @Test
+    void monthlyReturnsToTheStartDayAfterShortMonths() {
+        LocalDate start = LocalDate.of(2024, 1, 31);
+        assertThat(Cadence.MONTHLY.occurrence(start, 1)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(Cadence.MONTHLY.occurrence(start, 2)).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(Cadence.MONTHLY.occurrence(start, 3)).isEqualTo(LocalDate.of(2024, 4, 30));
+        assertThat(Cadence.MONTHLY.occurrence(start, 13)).isEqualTo(LocalDate.of(2025, 2, 28));
+    }
+
+    @Test
+    void yearlyFromLeapDayKeepsLeapDayInLeapYears() {
+        LocalDate start = LocalDate.of(2024, 2, 29);
+        assertThat(Cadence.YEARLY.occurrence(start, 1)).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(Cadence.YEARLY.occurrence(start, 4)).isEqualTo(LocalDate.of(2028, 2, 29));
+    }
+
+    @Test
+    void dailyAndWeeklyCountFromTheStart() {
+        LocalDate start = LocalDate.of(2024, 12, 30);
+        assertThat(Cadence.DAILY.occurrence(start, 0)).isEqualTo(start);
+        assertThat(Cadence.DAILY.occurrence(start, 3)).isEqualTo(LocalDate.of(2025, 1, 2));
+        assertThat(Cadence.WEEKLY.occurrence(start, 2)).isEqualTo(LocalDate.of(2025, 1, 13));
+    }
+}
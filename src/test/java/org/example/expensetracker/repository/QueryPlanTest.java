@@ -0,0 +1,118 @@
+package org.example.expensetracker.repository;
+
+import org.example.expensetracker.dto.ExpenseResponse;
+import org.example.expensetracker.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs H2's EXPLAIN on the SQL Hibernate generates for the hot expense and budget finders, so a query or
+ * migration change that stops them from using the V2 indexes fails here instead of in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.expensetracker.repository.QueryPlanTest$LastStatement"
+})
+class QueryPlanTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    // Keeps the last statement Hibernate prepared on this thread
+    public static class LastStatement implements StatementInspector {
+        static final ThreadLocal<String> SQL = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.set(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("alice");
+        user.setPassword("secret");
+        entityManager.persistAndFlush(user);
+    }
+
+    @Test
+    void dateRangeFindersUseUserDateIndex() {
+        expenseRepository.findByUserAndDateBetween(user, START, END);
+        assertPlanUses("idx_expense_user_date", user.getId(), START, END);
+
+        try (Stream<Object[]> rows = expenseRepository.streamAnalyticsRows(user.getId(), START, END)) {
+            rows.count();
+        }
+        assertPlanUses("idx_expense_user_date", user.getId(), START, END);
+    }
+
+    @Test
+    void categoryFindersUseUserCategoryDateIndex() {
+        expenseRepository.findByUserIdAndCategoryAndDateBetween(user.getId(), "Food", START, END);
+        assertPlanUses("idx_expense_user_category_date", user.getId(), "Food", START, END);
+
+        expenseRepository.sumByUserIdAndCategoryAndDateBetween(user.getId(), "Food", START, END);
+        assertPlanUses("idx_expense_user_category_date", user.getId(), "Food", START, END);
+    }
+
+    @Test
+    void pageAndStreamReadTheirDateRangeFromUserDateIndex() {
+        LocalDate cursorDate = LocalDate.of(2024, 6, 30);
+        expenseRepository.findPageByUserId(user.getId(), "Food", START, cursorDate, cursorDate, 5L,
+                PageRequest.of(0, 20));
+        assertPlanUses("idx_expense_user_date", user.getId(), "Food", "Food", START, cursorDate,
+                cursorDate, cursorDate, cursorDate, 5L, 0, 20);
+
+        expenseRepository.findPageByUserId(user.getId(), null, START, END, null, null, PageRequest.of(0, 20));
+        assertPlanUses("idx_expense_user_date", user.getId(), null, null, START, END,
+                null, null, null, null, 0, 20);
+
+        try (Stream<ExpenseResponse> rows = expenseRepository.streamByUserId(user.getId(), "Food", START, END)) {
+            rows.count();
+        }
+        assertPlanUses("idx_expense_user_date", user.getId(), "Food", "Food", START, END);
+    }
+
+    @Test
+    void budgetCategoryFinderUsesUserCategoryIndex() {
+        budgetRepository.findByUserIdAndCategory(user.getId(), "Food");
+        assertPlanUses("idx_budget_user_category", user.getId(), "Food");
+    }
+
+    private void assertPlanUses(String index, Object... parameters) {
+        String sql = LastStatement.SQL.get();
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+        assertThat(String.join("\n", plan).toLowerCase(Locale.ROOT))
+                .as("plan for %s", sql)
+                .contains(index);
+    }
+}
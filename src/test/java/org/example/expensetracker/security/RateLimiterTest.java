@@ -0,0 +1,124 @@
+package org.example.expensetracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    @Test
+    void grantsTheBurstThenReportsTheWait() {
+        RateLimiter limiter = new RateLimiter(3, Duration.ofHours(1), 10, 100);
+        RateLimiter.Client client = limiter.client("user:1");
+
+        assertThat(client.tryAcquire()).isZero();
+        assertThat(client.tryAcquire()).isZero();
+        assertThat(client.tryAcquire()).isZero();
+        long wait = client.tryAcquire();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofHours(1).toNanos());
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMillis(50), 10, 100);
+        RateLimiter.Client client = limiter.client("user:1");
+
+        assertThat(client.tryAcquire()).isZero();
+        assertThat(client.tryAcquire()).isPositive();
+        Thread.sleep(120);
+        assertThat(client.tryAcquire()).isZero();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofHours(1), 10, 100);
+
+        assertThat(limiter.client("ip:10.0.0.1").tryAcquire()).isZero();
+        assertThat(limiter.client("ip:10.0.0.1").tryAcquire()).isPositive();
+        assertThat(limiter.client("ip:10.0.0.2").tryAcquire()).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverGetMoreThanTheCapacity() throws Exception {
+        int capacity = 1_000;
+        RateLimiter limiter = new RateLimiter(capacity, Duration.ofHours(1), 10, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < capacity; i++) {
+                        if (limiter.client("user:1").tryAcquire() == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(granted).isEqualTo(capacity);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void capsRequestsInFlight() {
+        RateLimiter limiter = new RateLimiter(100, Duration.ofSeconds(1), 2, 100);
+        RateLimiter.Client client = limiter.client("user:1");
+
+        assertThat(client.tryEnter()).isTrue();
+        assertThat(client.tryEnter()).isTrue();
+        assertThat(client.tryEnter()).isFalse();
+        assertThat(limiter.inFlight("user:1")).isEqualTo(2);
+
+        client.exit();
+        assertThat(client.tryEnter()).isTrue();
+        client.exit();
+        client.exit();
+        assertThat(limiter.inFlight("user:1")).isZero();
+    }
+
+    @Test
+    void expiredBucketKeepsItsInFlightCount() throws InterruptedException {
+        // Buckets expire after one millisecond idle, far shorter than the request below
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMillis(1), 1, 100);
+        RateLimiter.Client first = limiter.client("user:1");
+        assertThat(first.tryEnter()).isTrue();
+
+        Thread.sleep(50);
+        RateLimiter.Client second = limiter.client("user:1");
+        assertThat(second.tryEnter()).isFalse();
+
+        first.exit();
+        assertThat(second.tryEnter()).isTrue();
+        second.exit();
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThatThrownBy(() -> new RateLimiter(0, Duration.ofSeconds(1), 1, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(1, Duration.ZERO, 1, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(1, Duration.ofSeconds(1), 0, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
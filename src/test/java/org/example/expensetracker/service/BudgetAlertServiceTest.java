@@ -0,0 +1,217 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.model.Budget;
+import org.example.expensetracker.model.BudgetAlert;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.BudgetAlertRepository;
+import org.example.expensetracker.repository.BudgetRepository;
+import org.example.expensetracker.repository.CategoryTotal;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the alert consumer by hand: events go in through the listener methods and {@code drain()} runs
+ * on the test thread instead of the scheduler.
+ */
+class BudgetAlertServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+    private final BudgetRepository budgetRepository = mock(BudgetRepository.class);
+    private final BudgetAlertRepository budgetAlertRepository = mock(BudgetAlertRepository.class);
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<Integer> saved = new ArrayList<>();
+
+    private BudgetAlertService service;
+    private Budget budget;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = service(100);
+
+        user = new User();
+        user.setId(USER_ID);
+        budget = new Budget();
+        budget.setId(10L);
+        budget.setCategory("Food");
+        budget.setAmount(Money.ofMinor(10_000));
+        budget.setStartDate(START);
+        budget.setEndDate(END);
+        budget.setUser(user);
+
+        when(budgetRepository.findByUserIdAndCategory(USER_ID, "Food")).thenReturn(List.of(budget));
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+        when(budgetAlertRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<BudgetAlert> alerts = invocation.getArgument(0);
+            alerts.forEach(alert -> saved.add(alert.getThreshold()));
+            return alerts;
+        });
+    }
+
+    @Test
+    void deltasAlreadyInTheSeedAreNotCountedTwice() {
+        seedWith(7_000, 5);
+
+        // Version 5 is part of the seeded sum: 70% + 20% would cross 80% if it were applied again
+        expense(5, START.plusDays(1), 2_000);
+        service.drain();
+        assertThat(saved).isEmpty();
+
+        expense(6, START.plusDays(2), 1_500);
+        service.drain();
+        assertThat(saved).containsExactly(80);
+    }
+
+    @Test
+    void eachThresholdIsRaisedOnce() {
+        seedWith(7_000, 5);
+
+        expense(6, START.plusDays(1), 1_500);
+        service.drain();
+        expense(7, START.plusDays(2), 2_000);
+        service.drain();
+        expense(8, START.plusDays(3), 500);
+        service.drain();
+
+        assertThat(saved).containsExactly(80, 100);
+        // Seeded on the first drain only; later batches apply deltas to the running total
+        verify(expenseRepository, times(1)).sumByUserIdAndCategoryAndDateBetween(USER_ID, "Food", START, END);
+    }
+
+    @Test
+    void deltasOutsideTheBudgetPeriodAreIgnored() {
+        seedWith(7_000, 5);
+
+        expense(6, END.plusDays(1), 5_000);
+        expense(7, START.minusDays(1), 5_000);
+        service.drain();
+
+        assertThat(saved).isEmpty();
+    }
+
+    @Test
+    void thresholdsRaisedBeforeASeedAreNotRaisedAgain() {
+        seedWith(9_000, 5);
+        when(budgetAlertRepository.findThresholdsByBudgetId(10L)).thenReturn(List.of(80));
+
+        service.onBudgetChanged(new BudgetChangedEvent(USER_ID, Set.of("Food")));
+        service.drain();
+        assertThat(saved).isEmpty();
+
+        expense(6, START, 1_000);
+        service.drain();
+        assertThat(saved).containsExactly(100);
+    }
+
+    @Test
+    void changedBudgetAmountReseeds() {
+        seedWith(7_000, 5);
+        expense(6, START, 500);
+        service.drain();
+        assertThat(saved).isEmpty();
+
+        // Halving the budget turns the 75% already spent into 150%
+        budget.setAmount(Money.ofMinor(5_000));
+        seedWith(7_500, 6);
+        service.onBudgetChanged(new BudgetChangedEvent(USER_ID, Set.of("Food")));
+        service.drain();
+
+        assertThat(saved).containsExactly(80, 100);
+        verify(expenseRepository, times(2)).sumByUserIdAndCategoryAndDateBetween(USER_ID, "Food", START, END);
+    }
+
+    @Test
+    void otherCategoriesDoNotTouchTheBudget() {
+        seedWith(9_500, 5);
+        service.onExpenseChanged(new ExpenseChangedEvent(USER_ID, 6,
+                List.of(new ExpenseChangedEvent.Delta(1L, "Travel", START, 1_000))));
+        service.drain();
+
+        verify(budgetRepository, never()).findByUserIdAndCategory(USER_ID, "Food");
+        verify(budgetAlertRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void evictedBudgetIsReseededWithoutCountingTwice() {
+        service = service(1);
+        Budget travel = new Budget();
+        travel.setId(20L);
+        travel.setCategory("Travel");
+        travel.setAmount(Money.ofMinor(10_000));
+        travel.setStartDate(START);
+        travel.setEndDate(END);
+        travel.setUser(user);
+        when(budgetRepository.findByUserIdAndCategory(USER_ID, "Travel")).thenReturn(List.of(travel));
+        seedWith(7_000, 5);
+
+        expense(6, START, 500);
+        service.drain();
+        // Tracking the travel budget pushes the food budget out
+        service.onExpenseChanged(new ExpenseChangedEvent(USER_ID, 7,
+                List.of(new ExpenseChangedEvent.Delta(7L, "Travel", START, 1_000))));
+        service.drain();
+
+        // The reseed at version 8 already holds the 500, so only the new 600 comes on top
+        seedWith(7_500, 8);
+        expense(8, START.plusDays(1), 600);
+        expense(9, START.plusDays(2), 600);
+        service.drain();
+
+        assertThat(saved).containsExactly(80);
+        verify(expenseRepository, times(2)).sumByUserIdAndCategoryAndDateBetween(USER_ID, "Food", START, END);
+    }
+
+    private BudgetAlertService service(int maxTrackedBudgets) {
+        BudgetAlertService created = new BudgetAlertService(
+                new int[]{80, 100}, Duration.ofMillis(500), 100, maxTrackedBudgets);
+        ReflectionTestUtils.setField(created, "budgetRepository", budgetRepository);
+        ReflectionTestUtils.setField(created, "budgetAlertRepository", budgetAlertRepository);
+        ReflectionTestUtils.setField(created, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(created, "userRepository", userRepository);
+        ReflectionTestUtils.setField(created, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        return created;
+    }
+
+    private void seedWith(long spentCents, long version) {
+        User locked = new User();
+        locked.setId(USER_ID);
+        locked.setExpensesVersion(version);
+        when(userRepository.findLockedById(USER_ID)).thenReturn(Optional.of(locked));
+        CategoryTotal total = mock(CategoryTotal.class);
+        when(total.getTotalCents()).thenReturn(spentCents);
+        when(expenseRepository.sumByUserIdAndCategoryAndDateBetween(USER_ID, "Food", START, END))
+                .thenReturn(Optional.of(total));
+    }
+
+    private void expense(long version, LocalDate date, long cents) {
+        service.onExpenseChanged(new ExpenseChangedEvent(USER_ID, version,
+                List.of(new ExpenseChangedEvent.Delta(version, "Food", date, cents))));
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.dto.ExpenseChange;
+import org.example.expensetracker.dto.ExpenseResponse;
+import org.example.expensetracker.model.ExpenseTombstone;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.ExpenseTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseChangesTest {
+    private static final long USER_ID = 7;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpenseTombstoneRepository expenseTombstoneRepository;
+
+    @InjectMocks
+    private ExpenseService expenseService;
+
+    @Test
+    void tokenRoundTrips() {
+        ChangeToken token = new ChangeToken(42, 1234);
+        assertThat(ChangeToken.decode(token.encode())).isEqualTo(token);
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> ChangeToken.decode("not-a-token"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mergesWritesAndDeletesInVersionThenIdOrder() {
+        when(expenseRepository.findChangesByUserId(eq(USER_ID), eq(0L), eq(0L), any()))
+                .thenReturn(List.of(change(10, 1), change(12, 3)));
+        when(expenseTombstoneRepository.findChangesByUserId(eq(USER_ID), eq(0L), eq(0L), any()))
+                .thenReturn(List.of(tombstone(11, 2), tombstone(9, 3)));
+
+        Map<String, Object> page = expenseService.getChanges(USER_ID, null, 10);
+
+        assertThat(changedIds(page)).containsExactly(10L, 12L);
+        assertThat(page.get("deleted")).isEqualTo(List.of(11L, 9L));
+        assertThat(ChangeToken.decode((String) page.get("nextToken"))).isEqualTo(new ChangeToken(3, 12));
+        assertThat(page.get("hasMore")).isEqualTo(false);
+    }
+
+    @Test
+    void fullPageStopsAtLastReturnedChange() {
+        ChangeToken since = new ChangeToken(1, 10);
+        when(expenseRepository.findChangesByUserId(eq(USER_ID), eq(1L), eq(10L), any()))
+                .thenReturn(List.of(change(12, 3)));
+        when(expenseTombstoneRepository.findChangesByUserId(eq(USER_ID), eq(1L), eq(10L), any()))
+                .thenReturn(List.of(tombstone(11, 2), tombstone(9, 3)));
+
+        Map<String, Object> page = expenseService.getChanges(USER_ID, since.encode(), 2);
+
+        // (3, 9) sorts before (3, 12), so the write is left for the next page
+        assertThat(changedIds(page)).isEmpty();
+        assertThat(page.get("deleted")).isEqualTo(List.of(11L, 9L));
+        assertThat(ChangeToken.decode((String) page.get("nextToken"))).isEqualTo(new ChangeToken(3, 9));
+        assertThat(page.get("hasMore")).isEqualTo(true);
+    }
+
+    @Test
+    void emptyPageKeepsTheClientsToken() {
+        ChangeToken since = new ChangeToken(5, 20);
+        when(expenseRepository.findChangesByUserId(eq(USER_ID), eq(5L), eq(20L), any())).thenReturn(List.of());
+        when(expenseTombstoneRepository.findChangesByUserId(eq(USER_ID), eq(5L), eq(20L), any())).thenReturn(List.of());
+
+        Map<String, Object> page = expenseService.getChanges(USER_ID, since.encode(), null);
+
+        assertThat(ChangeToken.decode((String) page.get("nextToken"))).isEqualTo(since);
+        assertThat(page.get("hasMore")).isEqualTo(false);
+    }
+
+    private static ExpenseChange change(long id, long version) {
+        return new ExpenseChange(id, "Expense " + id, Money.ofMinor(100), LocalDate.of(2024, 1, 1),
+                "Food", null, version);
+    }
+
+    private static ExpenseTombstone tombstone(long id, long version) {
+        return new ExpenseTombstone(id, null, version, Instant.EPOCH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> changedIds(Map<String, Object> page) {
+        return ((List<ExpenseResponse>) page.get("changed")).stream().map(ExpenseResponse::id).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.recurring.enabled=false")
+class ExpenseExportServiceTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User source;
+    private User target;
+
+    @BeforeEach
+    void setUp() {
+        source = user();
+        target = user();
+    }
+
+    @Test
+    void csvExportImportsBackIntoTheSameExpenses() throws Exception {
+        expenseService.createExpense(expense("Groceries", "Milk, \"oat\"\nBread\r\nEggs", LocalDate.of(2024, 3, 1)));
+        expenseService.createExpense(expense("Rent", null, LocalDate.of(2024, 3, 31)));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        expenseExportService.writeCsv(source.getId(), START, END, csv);
+        Map<String, Object> report = expenseImportService.importCsv(
+                target.getId(), new ByteArrayInputStream(csv.toByteArray()));
+
+        assertThat(report).containsEntry("imported", 2L).containsEntry("failed", 0L).containsEntry("complete", true);
+        List<Expense> imported = expenseRepository.findByUserIdAndCategoryAndDateBetween(
+                target.getId(), "Food", START, END);
+        assertThat(imported).extracting(Expense::getTitle).containsExactlyInAnyOrder("Groceries", "Rent");
+        // Line breaks come back as \n
+        assertThat(imported).extracting(Expense::getDescription)
+                .containsExactlyInAnyOrder("Milk, \"oat\"\nBread\nEggs", null);
+        assertThat(imported).extracting(Expense::getAmount).containsOnly(Money.ofMinor(1_250));
+    }
+
+    @Test
+    void unclosedQuoteIsReportedOnItsRow() throws Exception {
+        String csv = "title,amount,date\n"
+                + "Coffee,3.50,2024-05-01\n"
+                + "\"Lunch,12.00,2024-05-02\n"
+                + "Tea,2.00,2024-05-03\n";
+
+        Map<String, Object> report = expenseImportService.importCsv(
+                target.getId(), new ByteArrayInputStream(csv.getBytes()));
+
+        // The open quote runs to the end of the body, so everything after it is one bad record
+        assertThat(report).containsEntry("imported", 1L).containsEntry("failed", 1L);
+    }
+
+    private User user() {
+        User user = new User();
+        user.setUsername("export-" + UUID.randomUUID());
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private Expense expense(String title, String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setTitle(title);
+        expense.setDescription(description);
+        expense.setCategory("Food");
+        expense.setAmount(Money.ofMinor(1_250));
+        expense.setDate(date);
+        expense.setUser(source);
+        return expense;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.expensetracker.service;
+
+import org.example.expensetracker.model.Cadence;
+import org.example.expensetracker.model.Expense;
+import org.example.expensetracker.model.Money;
+import org.example.expensetracker.model.RecurringExpense;
+import org.example.expensetracker.model.User;
+import org.example.expensetracker.repository.ExpenseRepository;
+import org.example.expensetracker.repository.RecurringExpenseRepository;
+import org.example.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the materialization job by hand against the migrated in-memory database; the scheduled run is off.
+ */
+@SpringBootTest(properties = "app.recurring.enabled=false")
+class RecurringExpenseServiceTest {
+    private static final LocalDate FAR_FUTURE = LocalDate.of(2999, 1, 1);
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // The job walks every definition in the table, so drop the ones earlier tests left behind
+        recurringExpenseRepository.deleteAll();
+        user = new User();
+        user.setUsername("recurring-" + UUID.randomUUID());
+        user.setPassword("secret");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void createsEachOccurrenceOnceAndStopsAtTheEndDate() {
+        RecurringExpense rent = recurringExpenseService.create(
+                definition(Cadence.MONTHLY, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 6, 30)));
+
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 12, 1))).isEqualTo(6);
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 12, 1))).isZero();
+
+        assertThat(dates(rent)).containsExactlyInAnyOrder(
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31),
+                LocalDate.of(2024, 4, 30), LocalDate.of(2024, 5, 31), LocalDate.of(2024, 6, 30));
+        assertThat(recurringExpenseRepository.findById(rent.getId()).orElseThrow().getNextDueDate()).isNull();
+    }
+
+    @Test
+    void catchesUpPastThePerChunkCapInOneRun() {
+        RecurringExpense gym = recurringExpenseService.create(
+                definition(Cadence.DAILY, LocalDate.of(2023, 1, 1), null));
+
+        // 731 days, more than one transaction's worth of occurrences
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 12, 31))).isEqualTo(731);
+        assertThat(recurringExpenseRepository.findById(gym.getId()).orElseThrow().getNextDueDate())
+                .isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void catchesUpACappedDefinitionThatSortedBeforeItsChunkNeighbours() {
+        RecurringExpense gym = recurringExpenseService.create(
+                definition(Cadence.DAILY, LocalDate.of(2023, 1, 1), null));
+        RecurringExpense rent = recurringExpenseService.create(
+                definition(Cadence.MONTHLY, LocalDate.of(2024, 6, 15), null));
+        RecurringExpense parking = recurringExpenseService.create(
+                definition(Cadence.DAILY, LocalDate.of(2024, 12, 1), null));
+
+        // All three share a chunk; after its first 400 days the gym is still due before the parking
+        // definition's date, where the next page would start
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 12, 31))).isEqualTo(731 + 7 + 31);
+        assertThat(dates(gym)).hasSize(731);
+        assertThat(dates(rent)).hasSize(7);
+        assertThat(dates(parking)).hasSize(31);
+        assertThat(recurringExpenseRepository.findById(gym.getId()).orElseThrow().getNextDueDate())
+                .isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void skipsDatesThatAlreadyHaveAnExpense() {
+        RecurringExpense weekly = recurringExpenseService.create(
+                definition(Cadence.WEEKLY, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 25)));
+        Expense existing = new Expense();
+        existing.setTitle("Cleaner");
+        existing.setAmount(Money.ofMinor(2_500));
+        existing.setDate(LocalDate.of(2024, 3, 11));
+        existing.setRecurringExpenseId(weekly.getId());
+        existing.setUser(user);
+        expenseRepository.save(existing);
+
+        // The chunk fails on the unique key and the per-definition retry skips the taken date
+        assertThat(recurringExpenseService.materializeDue(LocalDate.of(2024, 4, 1))).isEqualTo(3);
+        assertThat(dates(weekly)).containsExactlyInAnyOrder(
+                LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11),
+                LocalDate.of(2024, 3, 18), LocalDate.of(2024, 3, 25));
+    }
+
+    @Test
+    void writeFromAStaleCopyIsRejected() {
+        RecurringExpense created = recurringExpenseService.create(
+                definition(Cadence.MONTHLY, LocalDate.of(2024, 1, 1), null));
+        RecurringExpense stale = recurringExpenseRepository.findById(created.getId()).orElseThrow();
+
+        recurringExpenseService.materializeDue(LocalDate.of(2024, 3, 1));
+
+        // The job advanced the row; saving the copy read before it must not roll that back
+        stale.setTitle("Renamed");
+        assertThatThrownBy(() -> recurringExpenseRepository.save(stale))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        RecurringExpense current = recurringExpenseRepository.findById(created.getId()).orElseThrow();
+        assertThat(current.getOccurrences()).isEqualTo(3);
+        assertThat(current.getNextDueDate()).isEqualTo(LocalDate.of(2024, 4, 1));
+    }
+
+    private RecurringExpense definition(Cadence cadence, LocalDate start, LocalDate end) {
+        RecurringExpense recurring = new RecurringExpense();
+        recurring.setTitle("Recurring");
+        recurring.setAmount(Money.ofMinor(1_000));
+        recurring.setCategory("Bills");
+        recurring.setCadence(cadence);
+        recurring.setStartDate(start);
+        recurring.setEndDate(end);
+        recurring.setUser(user);
+        return recurring;
+    }
+
+    private List<LocalDate> dates(RecurringExpense recurring) {
+        return expenseRepository.findDatesByRecurringExpenseId(recurring.getId(), LocalDate.of(1, 1, 1), FAR_FUTURE);
+    }
+}